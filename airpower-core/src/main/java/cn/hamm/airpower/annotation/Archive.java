@@ -0,0 +1,27 @@
+package cn.hamm.airpower.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * <h1>数据归档</h1>
+ *
+ * @author Hamm.cn
+ * @apiNote 标记后可调用 {@code RootService#archive()} 将创建时间早于保留天数的数据按月移入 {@code 表名_archive_yyyyMM} 归档表，
+ * 列表、分页和流式查询限定的创建时间范围涉及已归档的月份时自动合并查询归档表，否则只查询实体表；
+ * 未限定创建时间起点的查询需在 {@code ArchiveRouter#includeArchive(Supplier)} 中执行才会合并全部归档表；
+ * 按 {@code ID} 查询不会查询归档表
+ */
+@Target(TYPE)
+@Retention(RUNTIME)
+@Documented
+public @interface Archive {
+    /**
+     * <h3>实体表中保留的天数</h3>
+     */
+    int retainDay() default 180;
+}
@@ -0,0 +1,29 @@
+package cn.hamm.airpower.annotation;
+
+import cn.hamm.airpower.config.ServiceConfig;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * <h1>实体缓存</h1>
+ *
+ * @author Hamm.cn
+ * @apiNote 标记后且开启了 {@link ServiceConfig#isCache()} 时，按 {@code ID} 查询的详情将优先从缓存读取，
+ * 数据修改、禁用、启用、删除后自动失效，缓存中的实体与持久化上下文无关，修改后需调用 {@code Service} 保存
+ */
+@Target(TYPE)
+@Retention(RUNTIME)
+@Documented
+public @interface EntityCache {
+    /**
+     * <h3>缓存时间(秒)</h3>
+     *
+     * @apiNote 不大于 {@code 0} 时使用 {@link ServiceConfig#getCacheExpireSecond()}
+     */
+    long expireSecond() default 0;
+}
@@ -0,0 +1,25 @@
+package cn.hamm.airpower.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * <h1>并行导出</h1>
+ *
+ * @author Hamm.cn
+ * @apiNote 标记后按 {@code ID} 排序的导出任务将按 {@code ID} 范围拆分为多个分区并行查询，每个分区写入独立的文件片段，
+ * 全部完成后按顺序合并为一个文件；实际并行数不超过全局配置的 {@code airpower.exportParallelism}
+ */
+@Target(TYPE)
+@Retention(RUNTIME)
+@Documented
+public @interface ParallelExport {
+    /**
+     * <h3>并行的分区数</h3>
+     */
+    int value() default 4;
+}
@@ -0,0 +1,24 @@
+package cn.hamm.airpower.annotation;
+
+import cn.hamm.airpower.config.SnowflakeConfig;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * <h1>雪花ID</h1>
+ *
+ * @author Hamm.cn
+ * @apiNote 标记后且开启了 {@link SnowflakeConfig#isEnabled()} 时，实体的 {@code ID} 在保存前由时间戳、节点ID和序列号生成，
+ * 不再依赖数据库自增，{@code Hibernate} 可以批量插入这类实体；
+ * 雪花ID超出 {@code JavaScript} 的安全整数范围，接口中实体的 {@code ID} 输出为字符串，引用该实体 {@code ID} 的其他字段需自行处理
+ */
+@Target(TYPE)
+@Retention(RUNTIME)
+@Documented
+public @interface SnowflakeId {
+}
@@ -35,16 +35,24 @@ public class Configs {
     @Getter
     private static WebSocketConfig websocketConfig;
 
+    /**
+     * <h3>读写分离配置</h3>
+     */
+    @Getter
+    private static ReplicaConfig replicaConfig;
+
     @Autowired
     Configs(
             CookieConfig cookieConfig,
             ServiceConfig serviceConfig,
             MqttConfig mqttConfig,
-            WebSocketConfig websocketConfig
+            WebSocketConfig websocketConfig,
+            ReplicaConfig replicaConfig
     ) {
         Configs.cookieConfig = cookieConfig;
         Configs.serviceConfig = serviceConfig;
         Configs.mqttConfig = mqttConfig;
         Configs.websocketConfig = websocketConfig;
+        Configs.replicaConfig = replicaConfig;
     }
 }
@@ -0,0 +1,59 @@
+package cn.hamm.airpower.config;
+
+import cn.hamm.airpower.helper.ExportQueueHelper;
+import cn.hamm.airpower.util.DateTimeUtil;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.stereotype.Component;
+
+/**
+ * <h1>导出队列配置</h1>
+ *
+ * @author Hamm.cn
+ * @see ExportQueueHelper
+ */
+@Component
+@Data
+@Accessors(chain = true)
+@Configuration
+@ConfigurationProperties("airpower.export-queue")
+public class ExportQueueConfig {
+    /**
+     * <h3>是否开启导出队列</h3>
+     *
+     * @apiNote 开启后导出任务进入 {@code Redis} 队列，由任意节点领取执行，
+     * 各节点的导出目录需为共享存储或自定义 {@code saveExportFile} 存储到公共位置
+     */
+    private boolean enabled = false;
+
+    /**
+     * <h3>全部节点同时执行的导出任务上限</h3>
+     */
+    private int maxConcurrency = 4;
+
+    /**
+     * <h3>任务租约的有效期(秒)</h3>
+     *
+     * @apiNote 执行中的节点定时续约，节点宕机后租约过期的任务重新排队由其他节点接管
+     */
+    private int leaseSecond = 60;
+
+    /**
+     * <h3>排队中的任务保留的秒数</h3>
+     *
+     * @apiNote 排队期间导出任务和去重 {@code Key} 按此时间保留，领取后恢复为正常的过期时间
+     */
+    private int queueSecond = DateTimeUtil.SECOND_PER_DAY;
+
+    /**
+     * <h3>领取任务的间隔毫秒数</h3>
+     */
+    private long pollMillisecond = 1000;
+
+    /**
+     * <h3>队列 {@code Key} 的前缀</h3>
+     */
+    private String prefix = "airpower_export_queue_";
+}
@@ -0,0 +1,47 @@
+package cn.hamm.airpower.config;
+
+import cn.hamm.airpower.helper.NearCacheHelper;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.stereotype.Component;
+
+/**
+ * <h1>本地实体缓存配置</h1>
+ *
+ * @author Hamm.cn
+ * @see NearCacheHelper
+ */
+@Component
+@Data
+@Accessors(chain = true)
+@Configuration
+@ConfigurationProperties("airpower.near-cache")
+public class NearCacheConfig {
+    /**
+     * <h3>是否开启本地缓存</h3>
+     *
+     * @apiNote 需同时开启实体缓存，本地缓存位于 {@code Redis} 缓存之前
+     */
+    private boolean enabled = false;
+
+    /**
+     * <h3>本地缓存的最大容量</h3>
+     *
+     * @apiNote 按实体序列化后的字符数计算，超出后淘汰最久未访问的数据
+     */
+    private long maxSize = 16 * 1024 * 1024;
+
+    /**
+     * <h3>本地缓存的过期时间(秒)</h3>
+     *
+     * @apiNote 失效消息丢失时本地数据最多保留的时间
+     */
+    private int expireSecond = 30;
+
+    /**
+     * <h3>缓存失效消息的频道</h3>
+     */
+    private String channel = "airpower_near_cache_evict";
+}
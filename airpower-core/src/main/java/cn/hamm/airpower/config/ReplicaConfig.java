@@ -0,0 +1,65 @@
+package cn.hamm.airpower.config;
+
+import cn.hamm.airpower.datasource.DataSourceResolver;
+import cn.hamm.airpower.enums.ReplicaStrategy;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <h1>读写分离配置</h1>
+ *
+ * @author Hamm.cn
+ * @see DataSourceResolver
+ */
+@Component
+@Data
+@Accessors(chain = true)
+@Configuration
+@ConfigurationProperties("airpower.replica")
+public class ReplicaConfig {
+    /**
+     * <h3>是否开启读写分离</h3>
+     *
+     * @apiNote 开启后 {@code RootService} 在事务外的查询走从库，写入和事务内的查询走主库
+     */
+    private boolean enabled = false;
+
+    /**
+     * <h3>从库的选择策略</h3>
+     */
+    private ReplicaStrategy strategy = ReplicaStrategy.ROUND_ROBIN;
+
+    /**
+     * <h3>默认数据源的从库地址列表</h3>
+     *
+     * @apiNote {@code JDBC} 连接地址，租户数据源的从库通过 {@code DataSource#replicaList} 配置
+     */
+    private List<String> urlList = new ArrayList<>();
+
+    /**
+     * <h3>从库用户名</h3>
+     *
+     * @apiNote 不配置时使用主库的用户名
+     */
+    private String username;
+
+    /**
+     * <h3>从库密码</h3>
+     *
+     * @apiNote 不配置时使用主库的密码
+     */
+    private String password;
+
+    /**
+     * <h3>写入后是否固定走主库</h3>
+     *
+     * @apiNote 同一个请求内写入数据后，后续的查询都走主库，避免主从延迟导致读不到刚写入的数据
+     */
+    private boolean readYourWrites = true;
+}
@@ -1,5 +1,8 @@
 package cn.hamm.airpower.config;
 
+import cn.hamm.airpower.enums.ExportCompression;
+import cn.hamm.airpower.enums.ExportFormat;
+import cn.hamm.airpower.enums.PageCountMode;
 import cn.hamm.airpower.util.DateTimeUtil;
 import lombok.Data;
 import lombok.experimental.Accessors;
@@ -36,6 +39,63 @@ public class ServiceConfig {
      */
     private int defaultPageSize = 20;
 
+    /**
+     * <h3>默认的分页总数统计方式</h3>
+     *
+     * @apiNote 分页请求未指定统计方式时使用
+     */
+    private PageCountMode pageCountMode = PageCountMode.EXACT;
+
+    /**
+     * <h3>分页总数的缓存时间</h3>
+     */
+    private int pageCountCacheSecond = DateTimeUtil.SECOND_PER_MINUTE;
+
+    /**
+     * <h3>批量操作的分批大小</h3>
+     *
+     * @apiNote 批量写入时每批仅刷新一次数据库，同时作为 {@code JDBC} 的批处理大小
+     */
+    private int batchSize = 500;
+
+    /**
+     * <h3>流式查询的 {@code JDBC} 获取条数</h3>
+     *
+     * @apiNote 每次从数据库获取的行数，{@code MySQL} 需要开启 {@code useCursorFetch=true} 才会生效
+     */
+    private int fetchSize = 1000;
+
+    /**
+     * <h3>导出的全局并行数</h3>
+     *
+     * @apiNote 所有并行导出任务共用的线程数上限，避免导出占满数据库连接影响接口请求
+     */
+    private int exportParallelism = 4;
+
+    /**
+     * <h3>是否开启免读取的部分字段更新</h3>
+     *
+     * @apiNote 开启后修改数据时不再读取已存在的数据，直接按需要更新的字段生成一条 {@code UPDATE}；
+     * 重写了 {@code beforeSaveToDatabase}、实体有 {@code @Version} 或修改时的生命周期回调时自动回退到读取后合并，
+     * {@code beforeUpdate} 和 {@code afterUpdate} 只能拿到提交的实体，需要已存在数据的逻辑请自行查询
+     */
+    private boolean partialUpdate = false;
+
+    /**
+     * <h3>是否按接口的过滤器只查询需要返回的字段</h3>
+     *
+     * @apiNote 开启后列表和分页接口只查询 {@code @Filter} 下暴露的基础字段，查询后置方法中将无法读取未暴露的字段
+     */
+    private boolean filterProjection = false;
+
+    /**
+     * <h3>是否按过滤器结构生成查询语句</h3>
+     *
+     * @apiNote 开启后相同结构的查询生成相同的 {@code JPQL}，可复用 {@code Hibernate} 的查询计划缓存；
+     * 默认关闭，与 {@code partialUpdate} 和 {@code filterProjection} 一样需要显式开启
+     */
+    private boolean shapeQuery = false;
+
     /**
      * <h3>服务全局拦截</h3>
      */
@@ -43,6 +103,8 @@ public class ServiceConfig {
 
     /**
      * <h3>是否开启缓存</h3>
+     *
+     * @apiNote 开启后标记了 {@code @EntityCache} 的实体按 {@code ID} 查询时优先读取缓存
      */
     private boolean cache = false;
 
@@ -78,6 +140,29 @@ public class ServiceConfig {
      */
     private String exportFilePath = "";
 
+    /**
+     * <h3>相同导出请求的复用秒数</h3>
+     *
+     * @apiNote 同一租户和令牌对同一实体发起相同的导出时，进行中或在此时间内完成的导出直接返回已有的文件Code，
+     * 小于等于 {@code 0} 时不复用；开启导出队列时，排队中的导出一直可复用
+     */
+    private int exportDedupSecond = 60;
+
+    /**
+     * <h3>导出文件的压缩方式</h3>
+     *
+     * @apiNote 边写入边压缩，压缩后的文件名在 {@code .csv} 后追加对应的后缀
+     */
+    private ExportCompression exportCompression = ExportCompression.NONE;
+
+    /**
+     * <h3>导出文件的格式</h3>
+     *
+     * @apiNote 仅对未自定义导出文件生成和存储的导出生效，{@link ExportFormat#XLSX} 按列数据类型写入单元格类型，
+     * 超过单个工作表的行数上限时分为多个工作表
+     */
+    private ExportFormat exportFormat = ExportFormat.CSV;
+
     /**
      * <h3>是否开启调试模式</h3>
      *
@@ -0,0 +1,49 @@
+package cn.hamm.airpower.config;
+
+import cn.hamm.airpower.annotation.SnowflakeId;
+import cn.hamm.airpower.helper.SnowflakeHelper;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.stereotype.Component;
+
+/**
+ * <h1>雪花ID配置</h1>
+ *
+ * @author Hamm.cn
+ * @see SnowflakeId
+ * @see SnowflakeHelper
+ */
+@Component
+@Data
+@Accessors(chain = true)
+@Configuration
+@ConfigurationProperties("airpower.snowflake")
+public class SnowflakeConfig {
+    /**
+     * <h3>是否开启雪花ID</h3>
+     *
+     * @apiNote 开启后标记了 {@link SnowflakeId} 的实体在保存前生成 {@code ID}
+     */
+    private boolean enabled = false;
+
+    /**
+     * <h3>固定的节点ID</h3>
+     *
+     * @apiNote 取值 {@code 0-1023}，小于 {@code 0} 时通过 {@code Redis} 租约自动分配
+     */
+    private int nodeId = -1;
+
+    /**
+     * <h3>节点租约的有效期(秒)</h3>
+     *
+     * @apiNote 每隔三分之一有效期续约一次，实例宕机后节点ID在有效期结束后可被其他实例使用
+     */
+    private int leaseSecond = 60;
+
+    /**
+     * <h3>节点租约的缓存前缀</h3>
+     */
+    private String leasePrefix = "snowflake_node_";
+}
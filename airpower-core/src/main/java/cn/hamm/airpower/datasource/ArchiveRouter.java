@@ -0,0 +1,144 @@
+package cn.hamm.airpower.datasource;
+
+import cn.hamm.airpower.annotation.Archive;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <h1>归档表查询路由</h1>
+ *
+ * @author Hamm.cn
+ * @apiNote 在 {@link #route(String, String, List, Supplier)} 中执行的查询语句，会将实体表替换为实体表与归档表 {@code UNION ALL} 的派生表，
+ * 查询条件、排序和分页作用于合并后的数据，不在路由中的查询不受影响；
+ * 未限定创建时间起点的查询只查询实体表，需在 {@link #includeArchive(Supplier)} 中执行才会合并全部归档表
+ * @see Archive
+ */
+@Component
+public class ArchiveRouter implements StatementInspector, HibernatePropertiesCustomizer {
+    /**
+     * <h3>当前线程的路由</h3>
+     */
+    private static final ThreadLocal<Route> ROUTE = new ThreadLocal<>();
+
+    /**
+     * <h3>当前线程是否查询全部归档表</h3>
+     */
+    private static final ThreadLocal<Boolean> INCLUDE_ARCHIVE = new ThreadLocal<>();
+
+    /**
+     * <h3>在当前线程中执行包含归档表的查询</h3>
+     *
+     * @param supplier 查询方法
+     * @param <T>      返回类型
+     * @return 查询结果
+     * @apiNote 未限定创建时间起点的列表、分页和流式查询默认只查询实体表，在此方法中执行时合并查询全部归档表
+     */
+    public static <T> T includeArchive(@NotNull Supplier<T> supplier) {
+        Boolean last = INCLUDE_ARCHIVE.get();
+        INCLUDE_ARCHIVE.set(true);
+        try {
+            return supplier.get();
+        } finally {
+            if (Objects.isNull(last)) {
+                INCLUDE_ARCHIVE.remove();
+            } else {
+                INCLUDE_ARCHIVE.set(last);
+            }
+        }
+    }
+
+    /**
+     * <h3>当前线程是否查询全部归档表</h3>
+     *
+     * @return 是否在 {@link #includeArchive(Supplier)} 中
+     */
+    public static boolean isArchiveIncluded() {
+        return Boolean.TRUE.equals(INCLUDE_ARCHIVE.get());
+    }
+
+    /**
+     * <h3>在实体表与归档表合并的数据上执行查询</h3>
+     *
+     * @param tableName        实体表名
+     * @param columns          合并的列，归档表与实体表按这些列对齐
+     * @param archiveTableList 需要合并的归档表名列表
+     * @param supplier         查询方法
+     * @param <T>              返回类型
+     * @return 查询结果
+     */
+    public static <T> T route(
+            @NotNull String tableName, @NotNull String columns,
+            @NotNull List<String> archiveTableList, @NotNull Supplier<T> supplier
+    ) {
+        if (archiveTableList.isEmpty()) {
+            return supplier.get();
+        }
+        Route last = ROUTE.get();
+        ROUTE.set(new Route(tableName, columns, archiveTableList));
+        try {
+            return supplier.get();
+        } finally {
+            if (Objects.isNull(last)) {
+                ROUTE.remove();
+            } else {
+                ROUTE.set(last);
+            }
+        }
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Route route = ROUTE.get();
+        if (Objects.isNull(route) || !sql.regionMatches(true, 0, "select", 0, 6)) {
+            return sql;
+        }
+        return route.pattern.matcher(sql).replaceAll(route.replacement);
+    }
+
+    @Override
+    public void customize(@NotNull Map<String, Object> hibernateProperties) {
+        hibernateProperties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    /**
+     * <h3>路由</h3>
+     */
+    private static class Route {
+        /**
+         * <h3>实体表在 {@code FROM} 中的匹配规则</h3>
+         */
+        private final Pattern pattern;
+
+        /**
+         * <h3>替换后的派生表</h3>
+         */
+        private final String replacement;
+
+        /**
+         * <h3>创建路由</h3>
+         *
+         * @param tableName        实体表名
+         * @param columns          合并的列
+         * @param archiveTableList 归档表名列表
+         */
+        private Route(@NotNull String tableName, @NotNull String columns, @NotNull List<String> archiveTableList) {
+            pattern = Pattern.compile("(?i)\\bfrom\\s+`?" + Pattern.quote(tableName) + "`?(?=\\s)");
+            StringBuilder union = new StringBuilder("from (SELECT ").append(columns)
+                    .append(" FROM `").append(tableName).append('`');
+            archiveTableList.forEach(archiveTableName -> union.append(" UNION ALL SELECT ").append(columns)
+                    .append(" FROM `").append(archiveTableName).append('`')
+            );
+            replacement = Matcher.quoteReplacement(union.append(')').toString());
+        }
+    }
+}
@@ -3,6 +3,9 @@ package cn.hamm.airpower.datasource;
 import lombok.Data;
 import lombok.experimental.Accessors;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static cn.hamm.airpower.util.RequestUtil.LOCAL_IP_ADDRESS;
 
 /**
@@ -38,4 +41,11 @@ public class DataSource {
      * <h3>数据库密码</h3>
      */
     private String password;
+
+    /**
+     * <h3>从库地址列表</h3>
+     *
+     * @apiNote {@code host:port}，从库与主库使用相同的数据库名称、用户名和密码
+     */
+    private List<String> replicaList = new ArrayList<>();
 }
@@ -1,5 +1,6 @@
 package cn.hamm.airpower.datasource;
 
+import cn.hamm.airpower.config.ReplicaConfig;
 import com.alibaba.druid.pool.DruidDataSource;
 import com.alibaba.druid.spring.boot.autoconfigure.DruidDataSourceBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,6 +9,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 
+import java.util.Objects;
+
 /**
  * <h1>数据源配置类</h1>
  *
@@ -21,6 +24,12 @@ public class DataSourceConfiguration {
     @Autowired
     private DataSourceProperties dataSourceProperties;
 
+    /**
+     * <h3>读写分离配置</h3>
+     */
+    @Autowired
+    private ReplicaConfig replicaConfig;
+
     /**
      * <h3>设置主要的数据源</h3>
      *
@@ -33,9 +42,17 @@ public class DataSourceConfiguration {
         druidDataSource.setUsername(dataSourceProperties.getUsername());
         druidDataSource.setPassword(dataSourceProperties.getPassword());
         druidDataSource.setDriverClassName(dataSourceProperties.getDriverClassName());
-        druidDataSource.setUrl(dataSourceProperties.getUrl());
+        druidDataSource.setUrl(DataSourceResolver.withCursorFetch(dataSourceProperties.getUrl()));
         DataSourceResolver dataSourceResolver = new DataSourceResolver();
         dataSourceResolver.setDefaultTargetDataSource(druidDataSource);
+        dataSourceResolver.setReplicaList(null, replicaConfig.getUrlList().stream()
+                .map(url -> DataSourceResolver.createReplica(url,
+                        Objects.requireNonNullElse(replicaConfig.getUsername(), dataSourceProperties.getUsername()),
+                        Objects.requireNonNullElse(replicaConfig.getPassword(), dataSourceProperties.getPassword()),
+                        dataSourceProperties.getDriverClassName()
+                ))
+                .toList()
+        );
         return dataSourceResolver;
     }
 }
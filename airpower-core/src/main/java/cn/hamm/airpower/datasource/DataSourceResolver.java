@@ -2,20 +2,29 @@ package cn.hamm.airpower.datasource;
 
 import cn.hamm.airpower.config.Configs;
 import cn.hamm.airpower.config.Constant;
+import cn.hamm.airpower.config.ReplicaConfig;
 import cn.hamm.airpower.config.ServiceConfig;
+import cn.hamm.airpower.enums.ReplicaStrategy;
 import com.alibaba.druid.pool.DruidDataSource;
 import com.alibaba.druid.spring.boot.autoconfigure.DruidDataSourceBuilder;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * <h1>数据源操作类</h1>
@@ -40,20 +49,55 @@ public class DataSourceResolver extends AbstractRoutingDataSource {
      */
     private static final String DRIVER_NAME = "com.mysql.jdbc.Driver";
 
+    /**
+     * <h3>开启游标读取的连接参数</h3>
+     *
+     * @apiNote {@code MySQL} 开启后才会按 {@code fetchSize} 从服务端分批获取流式查询的结果
+     */
+    private static final String CURSOR_FETCH_PARAM = "useCursorFetch";
+
     /**
      * <h3>其他信息配置</h3>
      */
     private static final String DATASOURCE_CONFIG =
-            "?allowPublicKeyRetrieval=true&serverTimezone=UTC&useUnicode=true&characterEncoding=utf8&useSSL=false";
+            "?allowPublicKeyRetrieval=true&serverTimezone=UTC&useUnicode=true&characterEncoding=utf8&useSSL=false" +
+                    "&" + CURSOR_FETCH_PARAM + "=true";
+
+    /**
+     * <h3>从库列表</h3>
+     *
+     * @apiNote 默认数据源的从库使用空字符串作为 {@code key}
+     */
+    private static final Map<Object, List<DruidDataSource>> REPLICA_LIST = new ConcurrentHashMap<>();
+
+    /**
+     * <h3>轮询计数</h3>
+     */
+    private static final AtomicInteger ROUND_ROBIN_COUNTER = new AtomicInteger();
 
     /**
      * <h3>线程</h3>
      */
     private static final ThreadLocal<String> THREAD_LOCAL = new ThreadLocal<>();
 
+    /**
+     * <h3>当前线程是否正在从库查询</h3>
+     */
+    private static final ThreadLocal<Boolean> READ_REPLICA = new ThreadLocal<>();
+
+    /**
+     * <h3>当前请求已固定走主库的请求属性</h3>
+     *
+     * @apiNote 保存在请求属性中，随请求结束自动失效，不会残留到复用该线程的其他请求
+     */
+    private static final String PRIMARY_PINNED = DataSourceResolver.class.getName() + ".PRIMARY_PINNED";
+
     @Autowired
     private ServiceConfig serviceConfig;
 
+    @Autowired
+    private ReplicaConfig replicaConfig;
+
     /**
      * <h3>初始化空列表</h3>
      */
@@ -86,6 +130,98 @@ public class DataSourceResolver extends AbstractRoutingDataSource {
         THREAD_LOCAL.remove();
     }
 
+    /**
+     * <h3>在从库上执行查询</h3>
+     *
+     * @param supplier 查询方法
+     * @param <T>      返回类型
+     * @return 查询结果
+     * @apiNote 已在事务中或当前请求已写入过数据时仍走主库，查询方法中不应有写入操作
+     */
+    public static <T> T readFromReplica(@NotNull Supplier<T> supplier) {
+        if (isPrimaryRequired() || Boolean.TRUE.equals(READ_REPLICA.get())) {
+            return supplier.get();
+        }
+        READ_REPLICA.set(true);
+        try {
+            return supplier.get();
+        } finally {
+            READ_REPLICA.remove();
+        }
+    }
+
+    /**
+     * <h3>在从库上执行查询</h3>
+     *
+     * @param runnable 查询方法
+     * @see #readFromReplica(Supplier)
+     */
+    public static void readFromReplica(@NotNull Runnable runnable) {
+        readFromReplica(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * <h3>当前线程是否正在从库上查询</h3>
+     *
+     * @return 是否走从库
+     */
+    public static boolean isReadingReplica() {
+        return Boolean.TRUE.equals(READ_REPLICA.get());
+    }
+
+    /**
+     * <h3>当前请求的后续查询固定走主库</h3>
+     *
+     * @apiNote 写入数据后调用，仅在 {@code Web} 请求中生效，标记保存在请求属性中，请求结束后自动失效
+     */
+    public static void pinPrimary() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (Objects.isNull(requestAttributes)) {
+            return;
+        }
+        if (!Configs.getReplicaConfig().isReadYourWrites()) {
+            return;
+        }
+        requestAttributes.setAttribute(PRIMARY_PINNED, true, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    /**
+     * <h3>清除主库固定标记</h3>
+     */
+    public static void clearPrimaryPin() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (Objects.nonNull(requestAttributes)) {
+            requestAttributes.removeAttribute(PRIMARY_PINNED, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * <h3>是否必须走主库</h3>
+     *
+     * @return 在事务中或当前请求已固定走主库时必须走主库
+     */
+    private static boolean isPrimaryRequired() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return true;
+        }
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        return Objects.nonNull(requestAttributes) &&
+                Boolean.TRUE.equals(requestAttributes.getAttribute(PRIMARY_PINNED, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    /**
+     * <h3>获取从库的 {@code key}</h3>
+     *
+     * @param lookupKey 数据源的 {@code key}
+     * @return 从库的 {@code key}
+     */
+    private static @NotNull Object getReplicaKey(@Nullable Object lookupKey) {
+        return Objects.requireNonNullElse(lookupKey, Constant.STRING_EMPTY);
+    }
+
     /**
      * <h3>获取数据源包含数据库的地址</h3>
      *
@@ -160,11 +296,127 @@ public class DataSourceResolver extends AbstractRoutingDataSource {
                 serviceConfig.getDatabasePrefix() + dataSourceInfo.getDatabase(),
                 dataSource
         );
+        List<DruidDataSource> replicaList = new ArrayList<>();
+        dataSourceInfo.getReplicaList().forEach(replica -> {
+            String[] hostAndPort = replica.split(Constant.STRING_COLON);
+            DataSource replicaInfo = new DataSource()
+                    .setDatabase(dataSourceInfo.getDatabase())
+                    .setHost(hostAndPort[0])
+                    .setUser(dataSourceInfo.getUser())
+                    .setPassword(dataSourceInfo.getPassword());
+            if (hostAndPort.length > 1) {
+                replicaInfo.setPort(Integer.parseInt(hostAndPort[1]));
+            }
+            replicaList.add(createReplica(getDataSourceUrl(replicaInfo),
+                    Objects.requireNonNullElse(replicaConfig.getUsername(), replicaInfo.getUser()),
+                    Objects.requireNonNullElse(replicaConfig.getPassword(), replicaInfo.getPassword()),
+                    DRIVER_NAME
+            ));
+        });
+        setReplicaList(serviceConfig.getDatabasePrefix() + dataSourceInfo.getDatabase(), replicaList);
         super.afterPropertiesSet();
     }
 
+    /**
+     * <h3>设置数据源的从库</h3>
+     *
+     * @param lookupKey   数据源的 {@code key}，默认数据源传 {@code null}
+     * @param replicaList 从库列表
+     */
+    public void setReplicaList(@Nullable Object lookupKey, @NotNull List<DruidDataSource> replicaList) {
+        List<DruidDataSource> oldList = replicaList.isEmpty() ?
+                REPLICA_LIST.remove(getReplicaKey(lookupKey)) :
+                REPLICA_LIST.put(getReplicaKey(lookupKey), List.copyOf(replicaList));
+        if (Objects.nonNull(oldList)) {
+            oldList.forEach(DruidDataSource::close);
+        }
+    }
+
+    /**
+     * <h3>创建从库连接池</h3>
+     *
+     * @param url             连接地址
+     * @param username        用户名
+     * @param password        密码
+     * @param driverClassName 驱动类名称
+     * @return 连接池
+     */
+    public static @NotNull DruidDataSource createReplica(
+            String url, String username, String password, String driverClassName
+    ) {
+        DruidDataSource dataSource = DruidDataSourceBuilder.create().build();
+        dataSource.setDriverClassName(driverClassName);
+        dataSource.setUrl(withCursorFetch(url));
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setDefaultReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * <h3>为 {@code MySQL} 的连接地址开启游标读取</h3>
+     *
+     * @param url 连接地址
+     * @return 连接地址，不是 {@code MySQL} 或已配置过该参数时原样返回
+     */
+    public static String withCursorFetch(String url) {
+        if (Objects.isNull(url) || !url.startsWith(DATASOURCE_SCHEME) || url.contains(CURSOR_FETCH_PARAM + "=")) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + CURSOR_FETCH_PARAM + "=true";
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DruidDataSource replica = determineReplica();
+        if (Objects.isNull(replica)) {
+            return super.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException exception) {
+            log.error("从库连接获取失败，回退到主库", exception);
+            return super.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        DruidDataSource replica = determineReplica();
+        if (Objects.isNull(replica)) {
+            return super.getConnection(username, password);
+        }
+        try {
+            return replica.getConnection(username, password);
+        } catch (SQLException exception) {
+            log.error("从库连接获取失败，回退到主库", exception);
+            return super.getConnection(username, password);
+        }
+    }
+
     @Override
     protected Object determineCurrentLookupKey() {
         return DataSourceResolver.getDataSourceParam();
     }
+
+    /**
+     * <h3>选择当前查询使用的从库</h3>
+     *
+     * @return 从库，不需要或没有从库时返回 {@code null}
+     */
+    private @Nullable DruidDataSource determineReplica() {
+        if (!replicaConfig.isEnabled() || !Boolean.TRUE.equals(READ_REPLICA.get()) || isPrimaryRequired()) {
+            return null;
+        }
+        List<DruidDataSource> replicaList = REPLICA_LIST.get(getReplicaKey(determineCurrentLookupKey()));
+        if (Objects.isNull(replicaList) || replicaList.isEmpty()) {
+            return null;
+        }
+        if (replicaConfig.getStrategy() == ReplicaStrategy.LEAST_LOAD) {
+            return replicaList.stream()
+                    .min(Comparator.comparingInt(DruidDataSource::getActiveCount))
+                    .orElse(null);
+        }
+        return replicaList.get(Math.floorMod(ROUND_ROBIN_COUNTER.getAndIncrement(), replicaList.size()));
+    }
 }
@@ -62,7 +62,52 @@ public enum Api implements IDictionary {
     /**
      * <h3>查询异步导出结果</h3>
      */
-    QueryExport(10, "查询异步导出结果", "queryExport");
+    QueryExport(10, "查询异步导出结果", "queryExport"),
+
+    /**
+     * <h3>游标分页查询</h3>
+     */
+    GetCursorPage(11, "游标分页查询", "getCursorPage"),
+
+    /**
+     * <h3>批量禁用</h3>
+     */
+    DisableAll(12, "批量禁用", "disableAll"),
+
+    /**
+     * <h3>批量启用</h3>
+     */
+    EnableAll(13, "批量启用", "enableAll"),
+
+    /**
+     * <h3>批量删除</h3>
+     */
+    DeleteAll(14, "批量删除", "deleteAll"),
+
+    /**
+     * <h3>批量查询详情</h3>
+     */
+    GetByIds(15, "批量查询详情", "getByIds"),
+
+    /**
+     * <h3>查询导出任务</h3>
+     */
+    QueryExportJob(16, "查询导出任务", "queryExportJob"),
+
+    /**
+     * <h3>取消导出任务</h3>
+     */
+    CancelExport(17, "取消导出任务", "cancelExport"),
+
+    /**
+     * <h3>下载导出的文件</h3>
+     */
+    DownloadExport(18, "下载导出的文件", "downloadExport"),
+
+    /**
+     * <h3>导入</h3>
+     */
+    Import(19, "导入", "import");
 
     private final int key;
     private final String label;
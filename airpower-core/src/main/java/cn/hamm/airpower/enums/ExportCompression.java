@@ -0,0 +1,40 @@
+package cn.hamm.airpower.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * <h1>导出文件的压缩方式</h1>
+ *
+ * @author Hamm.cn
+ */
+@Getter
+@AllArgsConstructor
+public enum ExportCompression {
+    /**
+     * <h3>不压缩</h3>
+     */
+    NONE("", "text/csv"),
+
+    /**
+     * <h3>{@code GZIP}</h3>
+     */
+    GZIP(".gz", "application/gzip"),
+
+    /**
+     * <h3>{@code ZIP}</h3>
+     *
+     * @apiNote 压缩包中只有一个 {@code CSV} 文件
+     */
+    ZIP(".zip", "application/zip");
+
+    /**
+     * <h3>追加在 {@code .csv} 之后的文件后缀</h3>
+     */
+    private final String suffix;
+
+    /**
+     * <h3>文件的 {@code Content-Type}</h3>
+     */
+    private final String contentType;
+}
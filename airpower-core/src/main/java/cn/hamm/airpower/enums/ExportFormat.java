@@ -0,0 +1,35 @@
+package cn.hamm.airpower.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * <h1>导出文件的格式</h1>
+ *
+ * @author Hamm.cn
+ */
+@Getter
+@AllArgsConstructor
+public enum ExportFormat {
+    /**
+     * <h3>{@code CSV}</h3>
+     */
+    CSV(".csv", "text/csv"),
+
+    /**
+     * <h3>{@code Excel}</h3>
+     *
+     * @apiNote 本身即为压缩包，不再按 {@link ExportCompression} 压缩
+     */
+    XLSX(".xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    /**
+     * <h3>文件后缀</h3>
+     */
+    private final String suffix;
+
+    /**
+     * <h3>文件的 {@code Content-Type}</h3>
+     */
+    private final String contentType;
+}
@@ -0,0 +1,52 @@
+package cn.hamm.airpower.enums;
+
+/**
+ * <h1>导出任务的阶段</h1>
+ *
+ * @author Hamm.cn
+ */
+public enum ExportPhase {
+    /**
+     * <h3>排队中</h3>
+     */
+    QUEUED,
+
+    /**
+     * <h3>统计总数中</h3>
+     */
+    COUNTING,
+
+    /**
+     * <h3>导出中</h3>
+     */
+    EXPORTING,
+
+    /**
+     * <h3>合并文件片段中</h3>
+     */
+    MERGING,
+
+    /**
+     * <h3>已完成</h3>
+     */
+    FINISHED,
+
+    /**
+     * <h3>已失败</h3>
+     */
+    FAILED,
+
+    /**
+     * <h3>已取消</h3>
+     */
+    CANCELED;
+
+    /**
+     * <h3>是否已结束</h3>
+     *
+     * @return 已结束的任务不会再变化
+     */
+    public boolean isEnded() {
+        return this == FINISHED || this == FAILED || this == CANCELED;
+    }
+}
@@ -0,0 +1,36 @@
+package cn.hamm.airpower.enums;
+
+/**
+ * <h1>分页查询的总数统计方式</h1>
+ *
+ * @author Hamm.cn
+ */
+public enum PageCountMode {
+    /**
+     * <h3>精确统计</h3>
+     *
+     * @apiNote 每次查询都执行一次 {@code COUNT}
+     */
+    EXACT,
+
+    /**
+     * <h3>不统计</h3>
+     *
+     * @apiNote 多查询一条数据判断是否有下一页，总数和总页数返回 {@code -1}
+     */
+    NONE,
+
+    /**
+     * <h3>缓存统计结果</h3>
+     *
+     * @apiNote 按查询条件缓存 {@code COUNT} 的结果，缓存有效期内的总数可能不是最新的
+     */
+    CACHED,
+
+    /**
+     * <h3>估算</h3>
+     *
+     * @apiNote 无查询条件时从数据库的表统计信息中读取估算的总数，有查询条件时使用 {@link #CACHED}
+     */
+    ESTIMATE,
+}
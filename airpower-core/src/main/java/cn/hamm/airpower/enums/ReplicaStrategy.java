@@ -0,0 +1,20 @@
+package cn.hamm.airpower.enums;
+
+/**
+ * <h1>从库的选择策略</h1>
+ *
+ * @author Hamm.cn
+ */
+public enum ReplicaStrategy {
+    /**
+     * <h3>轮询</h3>
+     */
+    ROUND_ROBIN,
+
+    /**
+     * <h3>最少活跃连接</h3>
+     *
+     * @apiNote 选择当前活跃连接数最少的从库连接池
+     */
+    LEAST_LOAD,
+}
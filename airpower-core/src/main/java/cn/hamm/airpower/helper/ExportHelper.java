@@ -0,0 +1,291 @@
+package cn.hamm.airpower.helper;
+
+import cn.hamm.airpower.config.ServiceConfig;
+import cn.hamm.airpower.datasource.DataSourceResolver;
+import cn.hamm.airpower.enums.ExportCompression;
+import cn.hamm.airpower.enums.ExportFormat;
+import cn.hamm.airpower.exception.ServiceException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * <h1>导出助手</h1>
+ *
+ * @author Hamm.cn
+ * @apiNote 所有并行导出的分区共用一个固定大小的线程池，线程数由 {@code airpower.exportParallelism} 限制；
+ * 同时负责导出文件的下载
+ */
+@Component
+@Slf4j
+public class ExportHelper implements DisposableBean {
+    /**
+     * <h3>线程名前缀</h3>
+     */
+    private static final String THREAD_NAME_PREFIX = "airpower-export-";
+
+    /**
+     * <h3>范围请求的单位</h3>
+     */
+    private static final String RANGE_UNIT = "bytes";
+
+    /**
+     * <h3>{@code Tomcat} 是否支持 {@code sendfile} 的请求属性</h3>
+     */
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+    /**
+     * <h3>{@code Tomcat} 的 {@code sendfile} 文件名属性</h3>
+     */
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    /**
+     * <h3>{@code Tomcat} 的 {@code sendfile} 起始位置属性</h3>
+     */
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+    /**
+     * <h3>{@code Tomcat} 的 {@code sendfile} 结束位置属性（不包含）</h3>
+     */
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * <h3>线程序号</h3>
+     */
+    private final AtomicInteger threadNumber = new AtomicInteger(0);
+
+    /**
+     * <h3>线程池</h3>
+     */
+    private volatile ThreadPoolExecutor executor;
+
+    @Autowired
+    private ServiceConfig serviceConfig;
+
+    /**
+     * <h3>获取全局并行数</h3>
+     *
+     * @return 并行数
+     */
+    public final int getParallelism() {
+        return Math.max(1, serviceConfig.getExportParallelism());
+    }
+
+    /**
+     * <h3>并行执行全部任务并等待完成</h3>
+     *
+     * @param taskList 任务列表
+     * @apiNote 任务在调用方的数据源下执行，任一任务失败时取消其余任务并抛出异常
+     */
+    public final void runAll(@NotNull List<Runnable> taskList) {
+        final String dataSourceParam = DataSourceResolver.getDataSourceParam();
+        List<Future<?>> futureList = new ArrayList<>(taskList.size());
+        try {
+            for (Runnable task : taskList) {
+                futureList.add(getExecutor().submit(() -> {
+                    DataSourceResolver.setDataSourceParam(dataSourceParam);
+                    try {
+                        task.run();
+                    } finally {
+                        DataSourceResolver.clearDataSourceParam();
+                    }
+                }));
+            }
+            for (Future<?> future : futureList) {
+                future.get();
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException(exception);
+        } catch (ExecutionException exception) {
+            Throwable cause = Objects.requireNonNullElse(exception.getCause(), exception);
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            log.error(cause.getMessage(), cause);
+            throw new ServiceException(cause.getMessage());
+        } finally {
+            futureList.forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * <h3>下载导出的文件</h3>
+     *
+     * @param path     文件的绝对路径
+     * @param request  请求
+     * @param response 响应
+     * @apiNote 支持单个范围的 {@code Range} 请求用于断点续传，以文件大小和修改时间作为 {@code ETag}；
+     * 容器支持 {@code sendfile} 时由容器直接发送文件，否则通过 {@link FileChannel#transferTo} 写入响应
+     */
+    public final void download(
+            @NotNull Path path, @NotNull HttpServletRequest request, @NotNull HttpServletResponse response
+    ) {
+        try {
+            final long size = Files.size(path);
+            final String eTag = "\"" + Long.toHexString(size) + "-" +
+                    Long.toHexString(Files.getLastModifiedTime(path).toMillis()) + "\"";
+            response.setHeader(HttpHeaders.ETAG, eTag);
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, RANGE_UNIT);
+            if (eTag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+            long start = 0;
+            long end = size - 1;
+            String range = request.getHeader(HttpHeaders.RANGE);
+            String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+            if (Objects.nonNull(range) && (Objects.isNull(ifRange) || eTag.equals(ifRange))) {
+                long[] position = parseRange(range, size);
+                if (Objects.isNull(position)) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, RANGE_UNIT + " */" + size);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                if (position.length > 0) {
+                    start = position[0];
+                    end = position[1];
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, RANGE_UNIT + " " + start + "-" + end + "/" + size);
+                }
+            }
+            final String fileName = path.getFileName().toString();
+            response.setContentType(getContentType(fileName));
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename(fileName, UTF_8).build().toString()
+            );
+            response.setContentLengthLong(end - start + 1);
+            if (end < start) {
+                return;
+            }
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end + 1);
+                return;
+            }
+            try (FileChannel source = FileChannel.open(path, StandardOpenOption.READ)) {
+                WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+                long position = start;
+                while (position <= end) {
+                    position += source.transferTo(position, end - position + 1, target);
+                }
+            }
+        } catch (IOException exception) {
+            log.error(exception.getMessage(), exception);
+            throw new ServiceException(exception);
+        }
+    }
+
+    /**
+     * <h3>解析 {@code Range} 请求头</h3>
+     *
+     * @param range {@code Range} 请求头
+     * @param size  文件大小
+     * @return 包含起止位置的数组，不支持的格式返回空数组表示返回整个文件，无法满足时返回 {@code null}
+     */
+    private static long @Nullable [] parseRange(@NotNull String range, long size) {
+        final String prefix = RANGE_UNIT + "=";
+        if (!range.startsWith(prefix) || range.contains(",")) {
+            // 不支持多个范围 返回整个文件
+            return new long[0];
+        }
+        String[] parts = range.substring(prefix.length()).trim().split("-", -1);
+        if (parts.length != 2) {
+            return new long[0];
+        }
+        try {
+            long start;
+            long end;
+            if (parts[0].isEmpty()) {
+                // 最后N个字节
+                long suffixLength = Long.parseLong(parts[1]);
+                if (suffixLength <= 0) {
+                    return null;
+                }
+                start = Math.max(0, size - suffixLength);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(parts[0]);
+                end = parts[1].isEmpty() ? size - 1 : Math.min(Long.parseLong(parts[1]), size - 1);
+            }
+            if (start < 0 || start >= size || end < start) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException exception) {
+            return new long[0];
+        }
+    }
+
+    /**
+     * <h3>获取文件的 {@code Content-Type}</h3>
+     *
+     * @param fileName 文件名
+     * @return {@code Content-Type}
+     */
+    private static @NotNull String getContentType(@NotNull String fileName) {
+        if (fileName.endsWith(ExportFormat.XLSX.getSuffix())) {
+            return ExportFormat.XLSX.getContentType();
+        }
+        for (ExportCompression compression : ExportCompression.values()) {
+            if (compression != ExportCompression.NONE && fileName.endsWith(compression.getSuffix())) {
+                return compression.getContentType();
+            }
+        }
+        return ExportCompression.NONE.getContentType();
+    }
+
+    /**
+     * <h3>获取线程池</h3>
+     *
+     * @return 线程池
+     */
+    private @NotNull ThreadPoolExecutor getExecutor() {
+        if (Objects.isNull(executor)) {
+            synchronized (this) {
+                if (Objects.isNull(executor)) {
+                    final int parallelism = getParallelism();
+                    executor = new ThreadPoolExecutor(
+                            parallelism, parallelism, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                            runnable -> {
+                                Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadNumber.incrementAndGet());
+                                thread.setDaemon(true);
+                                return thread;
+                            }
+                    );
+                }
+            }
+        }
+        return executor;
+    }
+
+    @Override
+    public void destroy() {
+        if (Objects.nonNull(executor)) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package cn.hamm.airpower.helper;
+
+import cn.hamm.airpower.config.ExportQueueConfig;
+import cn.hamm.airpower.datasource.DataSourceResolver;
+import cn.hamm.airpower.model.ExportTask;
+import cn.hamm.airpower.model.Json;
+import cn.hamm.airpower.root.RootService;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static cn.hamm.airpower.config.Constant.STRING_EMPTY;
+
+/**
+ * <h1>导出队列助手</h1>
+ *
+ * @author Hamm.cn
+ * @apiNote 导出任务按租户排入 {@code Redis} 队列，各节点轮流从最久未被服务的租户领取任务，
+ * 全部节点同时执行的任务数不超过上限；领取后持有租约并定时续约，租约过期的任务重新排到该租户队首由其他节点接管
+ */
+@Component
+@Slf4j
+public class ExportQueueHelper implements InitializingBean, DisposableBean {
+    /**
+     * <h3>入队脚本</h3>
+     */
+    private static final RedisScript<String> ENQUEUE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('SET', ARGV[1] .. 'job_' .. ARGV[3], ARGV[4])
+            redis.call('HSET', ARGV[1] .. 'job_tenant', ARGV[3], ARGV[2])
+            redis.call('RPUSH', ARGV[1] .. 'queue_' .. ARGV[2], ARGV[3])
+            redis.call('ZADD', ARGV[1] .. 'tenants', 'NX', ARGV[5], ARGV[2])
+            return 'OK'
+            """, String.class);
+
+    /**
+     * <h3>领取脚本</h3>
+     *
+     * @apiNote 按租户最后被服务的时间依次尝试，领取后将该租户移到最后
+     */
+    private static final RedisScript<String> DEQUEUE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('ZCARD', ARGV[1] .. 'running') >= tonumber(ARGV[4]) then
+                return false
+            end
+            for _, tenant in ipairs(redis.call('ZRANGE', ARGV[1] .. 'tenants', 0, -1)) do
+                local queue = ARGV[1] .. 'queue_' .. tenant
+                local fileCode = redis.call('LPOP', queue)
+                if fileCode then
+                    if redis.call('LLEN', queue) == 0 then
+                        redis.call('ZREM', ARGV[1] .. 'tenants', tenant)
+                    else
+                        redis.call('ZADD', ARGV[1] .. 'tenants', ARGV[2], tenant)
+                    end
+                    redis.call('ZADD', ARGV[1] .. 'running', ARGV[3], fileCode)
+                    redis.call('HSET', ARGV[1] .. 'owner', fileCode, ARGV[5])
+                    return fileCode .. '\\n' .. (redis.call('GET', ARGV[1] .. 'job_' .. fileCode) or '')
+                end
+                redis.call('ZREM', ARGV[1] .. 'tenants', tenant)
+            end
+            return false
+            """, String.class);
+
+    /**
+     * <h3>续约脚本</h3>
+     *
+     * @apiNote 租约已不属于当前节点时返回 {@code 0}
+     */
+    private static final RedisScript<String> HEARTBEAT_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('HGET', ARGV[1] .. 'owner', ARGV[2]) ~= ARGV[4] then
+                return '0'
+            end
+            redis.call('ZADD', ARGV[1] .. 'running', 'XX', ARGV[3], ARGV[2])
+            return '1'
+            """, String.class);
+
+    /**
+     * <h3>完成脚本</h3>
+     */
+    private static final RedisScript<String> COMPLETE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('HGET', ARGV[1] .. 'owner', ARGV[2]) ~= ARGV[3] then
+                return '0'
+            end
+            redis.call('ZREM', ARGV[1] .. 'running', ARGV[2])
+            redis.call('HDEL', ARGV[1] .. 'owner', ARGV[2])
+            redis.call('HDEL', ARGV[1] .. 'job_tenant', ARGV[2])
+            redis.call('DEL', ARGV[1] .. 'job_' .. ARGV[2])
+            return '1'
+            """, String.class);
+
+    /**
+     * <h3>回收脚本</h3>
+     *
+     * @apiNote 租约过期的任务放回所属租户的队首
+     */
+    private static final RedisScript<String> REAP_SCRIPT = new DefaultRedisScript<>("""
+            local expired = redis.call('ZRANGEBYSCORE', ARGV[1] .. 'running', '-inf', ARGV[2])
+            for _, fileCode in ipairs(expired) do
+                redis.call('ZREM', ARGV[1] .. 'running', fileCode)
+                redis.call('HDEL', ARGV[1] .. 'owner', fileCode)
+                local tenant = redis.call('HGET', ARGV[1] .. 'job_tenant', fileCode)
+                if tenant then
+                    redis.call('LPUSH', ARGV[1] .. 'queue_' .. tenant, fileCode)
+                    redis.call('ZADD', ARGV[1] .. 'tenants', 'NX', 0, tenant)
+                end
+            end
+            return tostring(#expired)
+            """, String.class);
+
+    /**
+     * <h3>领取结果中文件Code与任务的分隔符</h3>
+     */
+    private static final char RESULT_SEPARATOR = '\n';
+
+    /**
+     * <h3>当前节点的标识</h3>
+     */
+    private final String owner = UUID.randomUUID().toString();
+
+    /**
+     * <h3>当前节点执行中的任务</h3>
+     *
+     * @apiNote 值为是否仍持有租约
+     */
+    private final ConcurrentHashMap<String, Boolean> leaseMap = new ConcurrentHashMap<>();
+
+    /**
+     * <h3>线程序号</h3>
+     */
+    private final AtomicInteger threadNumber = new AtomicInteger(0);
+
+    /**
+     * <h3>领取和续约线程</h3>
+     */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * <h3>执行任务的线程池</h3>
+     */
+    private ExecutorService executor;
+
+    @Autowired
+    private ExportQueueConfig exportQueueConfig;
+
+    @Autowired
+    private RedisHelper redisHelper;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!exportQueueConfig.isEnabled()) {
+            return;
+        }
+        executor = Executors.newFixedThreadPool(getMaxConcurrency(), runnable -> {
+            Thread thread = new Thread(runnable, "airpower-export-queue-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "airpower-export-queue");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final long pollMillisecond = Math.max(1, exportQueueConfig.getPollMillisecond());
+        final long heartbeatMillisecond = Math.max(1, getLeaseMillisecond() / 3);
+        scheduler.scheduleWithFixedDelay(this::poll, pollMillisecond, pollMillisecond, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(
+                this::heartbeat, heartbeatMillisecond, heartbeatMillisecond, TimeUnit.MILLISECONDS
+        );
+    }
+
+    @Override
+    public void destroy() {
+        if (Objects.isNull(scheduler)) {
+            return;
+        }
+        scheduler.shutdownNow();
+        // 立即让出执行中的任务 由其他节点接管
+        leaseMap.replaceAll((fileCode, held) -> {
+            if (held) {
+                try {
+                    redisHelper.execute(HEARTBEAT_SCRIPT, exportQueueConfig.getPrefix(), fileCode, 0, owner);
+                } catch (Exception exception) {
+                    log.error("释放导出任务租约失败", exception);
+                }
+            }
+            return false;
+        });
+        executor.shutdownNow();
+    }
+
+    /**
+     * <h3>提交导出任务</h3>
+     *
+     * @param fileCode   文件Code
+     * @param exportTask 导出任务
+     */
+    public final void submit(@NotNull String fileCode, @NotNull ExportTask exportTask) {
+        redisHelper.execute(ENQUEUE_SCRIPT, exportQueueConfig.getPrefix(),
+                Objects.requireNonNullElse(exportTask.getTenant(), STRING_EMPTY), fileCode,
+                Json.toString(exportTask), System.currentTimeMillis()
+        );
+    }
+
+    /**
+     * <h3>当前节点是否仍持有任务的租约</h3>
+     *
+     * @param fileCode 文件Code
+     * @return 不是由队列领取的任务始终返回 {@code true}
+     */
+    public final boolean isLeaseHeld(@NotNull String fileCode) {
+        return leaseMap.getOrDefault(fileCode, true);
+    }
+
+    /**
+     * <h3>回收过期的任务并领取新任务</h3>
+     */
+    private void poll() {
+        try {
+            final String prefix = exportQueueConfig.getPrefix();
+            redisHelper.execute(REAP_SCRIPT, prefix, System.currentTimeMillis());
+            while (leaseMap.size() < getMaxConcurrency()) {
+                final long now = System.currentTimeMillis();
+                String result = redisHelper.execute(
+                        DEQUEUE_SCRIPT, prefix, now, now + getLeaseMillisecond(), getMaxConcurrency(), owner
+                );
+                if (Objects.isNull(result)) {
+                    return;
+                }
+                final int index = result.indexOf(RESULT_SEPARATOR);
+                final String fileCode = result.substring(0, index);
+                final String payload = result.substring(index + 1);
+                leaseMap.put(fileCode, true);
+                executor.execute(() -> run(fileCode, payload));
+            }
+        } catch (Exception exception) {
+            log.error("领取导出任务失败", exception);
+        }
+    }
+
+    /**
+     * <h3>执行领取到的任务</h3>
+     *
+     * @param fileCode 文件Code
+     * @param payload  导出任务的 {@code Json}
+     * @apiNote 任务内容丢失或找不到服务时将导出任务标记为失败，避免一直处于排队状态
+     */
+    private void run(@NotNull String fileCode, @NotNull String payload) {
+        ExportTask exportTask = null;
+        try {
+            if (payload.isEmpty()) {
+                log.warn("导出任务 {} 的内容已丢失", fileCode);
+                failExportJob(fileCode, null, "导出任务的内容已丢失");
+                return;
+            }
+            exportTask = Json.parse(payload, ExportTask.class);
+            RootService<?, ?> service = (RootService<?, ?>) applicationContext.getBean(
+                    ClassUtils.forName(exportTask.getServiceClass(), getClass().getClassLoader())
+            );
+            DataSourceResolver.setDataSourceParam(getTenant(exportTask));
+            service.executeExportTask(fileCode, exportTask);
+        } catch (Exception exception) {
+            log.error("执行导出任务失败", exception);
+            if (Boolean.TRUE.equals(leaseMap.get(fileCode))) {
+                failExportJob(fileCode, Objects.isNull(exportTask) ? null : exportTask.getDedupKey(),
+                        "执行导出任务失败：" + exception.getMessage()
+                );
+            }
+        } finally {
+            DataSourceResolver.clearDataSourceParam();
+            if (Boolean.TRUE.equals(leaseMap.remove(fileCode))) {
+                try {
+                    redisHelper.execute(COMPLETE_SCRIPT, exportQueueConfig.getPrefix(), fileCode, owner);
+                } catch (Exception exception) {
+                    log.error("完成导出任务失败", exception);
+                }
+            }
+        }
+    }
+
+    /**
+     * <h3>将导出任务标记为失败</h3>
+     *
+     * @param fileCode 文件Code
+     * @param dedupKey 去重 {@code Key}，未知时为 {@code null}
+     * @param message  失败原因
+     * @apiNote 用于无法交给服务执行的任务，去重 {@code Key} 仍指向该任务时一并删除，让相同的导出可以重新发起
+     */
+    private void failExportJob(@NotNull String fileCode, @Nullable String dedupKey, @NotNull String message) {
+        try {
+            RootService.failExportJob(redisHelper, fileCode, dedupKey, message);
+        } catch (Exception exception) {
+            log.error("标记导出任务失败时出错", exception);
+        }
+    }
+
+    /**
+     * <h3>续约当前节点执行中的任务</h3>
+     *
+     * @apiNote 租约已被回收的任务标记为不再持有，执行线程在下次报告进度时停止
+     */
+    private void heartbeat() {
+        leaseMap.forEach((fileCode, held) -> {
+            if (!held) {
+                return;
+            }
+            try {
+                String result = redisHelper.execute(HEARTBEAT_SCRIPT, exportQueueConfig.getPrefix(), fileCode,
+                        System.currentTimeMillis() + getLeaseMillisecond(), owner
+                );
+                if ("0".equals(result)) {
+                    log.warn("导出任务 {} 的租约已丢失", fileCode);
+                    leaseMap.computeIfPresent(fileCode, (key, value) -> false);
+                }
+            } catch (Exception exception) {
+                log.error("导出任务续约失败", exception);
+            }
+        });
+    }
+
+    /**
+     * <h3>获取任务的租户</h3>
+     *
+     * @param exportTask 导出任务
+     * @return 租户，未使用多租户时为 {@code null}
+     */
+    private @Nullable String getTenant(@NotNull ExportTask exportTask) {
+        String tenant = exportTask.getTenant();
+        return Objects.isNull(tenant) || tenant.isEmpty() ? null : tenant;
+    }
+
+    /**
+     * <h3>获取全部节点同时执行的任务上限</h3>
+     *
+     * @return 上限
+     */
+    private int getMaxConcurrency() {
+        return Math.max(1, exportQueueConfig.getMaxConcurrency());
+    }
+
+    /**
+     * <h3>获取租约的毫秒数</h3>
+     *
+     * @return 毫秒数
+     */
+    private long getLeaseMillisecond() {
+        return Math.max(1, exportQueueConfig.getLeaseSecond()) * 1000L;
+    }
+}
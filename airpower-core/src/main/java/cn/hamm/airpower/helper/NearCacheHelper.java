@@ -0,0 +1,249 @@
+package cn.hamm.airpower.helper;
+
+import cn.hamm.airpower.config.NearCacheConfig;
+import cn.hamm.airpower.root.RootEntity;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * <h1>本地实体缓存助手</h1>
+ *
+ * @author Hamm.cn
+ * @apiNote 按容量淘汰最久未访问数据的进程内缓存，写入和读取均为实体的副本，读取不加锁；
+ * 通过 {@code Redis} 的发布订阅通知其他节点失效，订阅由监听容器维护并在连接断开后自动重新订阅，
+ * 过期时间兜底消息丢失的情况
+ */
+@Component
+@Slf4j
+public class NearCacheHelper implements InitializingBean, DisposableBean {
+    /**
+     * <h3>消息中 {@code Key} 的分隔符</h3>
+     */
+    private static final String KEY_SEPARATOR = "\n";
+
+    /**
+     * <h3>淘汰后保留的容量比例</h3>
+     *
+     * @apiNote 一次淘汰到上限的该比例以下，避免容量满后每次写入都触发排序
+     */
+    private static final double EVICT_WATERMARK = 0.9;
+
+    /**
+     * <h3>缓存数据</h3>
+     */
+    private final ConcurrentHashMap<String, CacheNode> cacheMap = new ConcurrentHashMap<>();
+
+    /**
+     * <h3>当前缓存的总容量</h3>
+     */
+    private final AtomicLong totalSize = new AtomicLong(0);
+
+    /**
+     * <h3>是否正在淘汰数据</h3>
+     */
+    private final AtomicBoolean evicting = new AtomicBoolean(false);
+
+    /**
+     * <h3>失效消息的监听容器</h3>
+     */
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired
+    protected NearCacheConfig nearCacheConfig;
+
+    @Autowired
+    protected RedisHelper redisHelper;
+
+    @Autowired
+    protected RedisConnectionFactory redisConnectionFactory;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!nearCacheConfig.isEnabled()) {
+            return;
+        }
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redisConnectionFactory);
+        listenerContainer.addMessageListener((message, pattern) -> evictLocal(
+                Arrays.asList(new String(message.getBody(), UTF_8).split(KEY_SEPARATOR))
+        ), new ChannelTopic(nearCacheConfig.getChannel()));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (Objects.nonNull(listenerContainer)) {
+            listenerContainer.destroy();
+        }
+    }
+
+    /**
+     * <h3>从本地缓存中获取实体</h3>
+     *
+     * @param key 缓存的 {@code Key}
+     * @param <E> 实体类型
+     * @return 实体的副本，不存在或已过期时返回 {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public final <E extends RootEntity<E>> @Nullable E get(@NotNull String key) {
+        if (!nearCacheConfig.isEnabled()) {
+            return null;
+        }
+        CacheNode cacheNode = cacheMap.get(key);
+        if (Objects.isNull(cacheNode)) {
+            return null;
+        }
+        final long now = System.currentTimeMillis();
+        if (cacheNode.expireTime < now) {
+            remove(key, cacheNode);
+            return null;
+        }
+        cacheNode.accessTime = now;
+        return (E) cacheNode.entity.copy();
+    }
+
+    /**
+     * <h3>写入本地缓存</h3>
+     *
+     * @param key    缓存的 {@code Key}
+     * @param entity 实体
+     * @param size   实体的容量，即缓存在 {@code Redis} 中的 {@code Json} 的字符数
+     * @param <E>    实体类型
+     * @apiNote 容量由调用方从已有的序列化结果中取得，避免为计算容量重复序列化
+     */
+    public final <E extends RootEntity<E>> void put(@NotNull String key, @NotNull E entity, long size) {
+        if (!nearCacheConfig.isEnabled()) {
+            return;
+        }
+        if (size > nearCacheConfig.getMaxSize()) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        CacheNode cacheNode = new CacheNode(
+                entity.copy(), size, now + nearCacheConfig.getExpireSecond() * 1000L, now
+        );
+        CacheNode last = cacheMap.put(key, cacheNode);
+        totalSize.addAndGet(Objects.isNull(last) ? size : size - last.size);
+        evictOverflow();
+    }
+
+    /**
+     * <h3>使本地缓存失效并通知其他节点</h3>
+     *
+     * @param keys 缓存的 {@code Key} 集合
+     */
+    public final void evict(@NotNull Collection<String> keys) {
+        if (!nearCacheConfig.isEnabled() || keys.isEmpty()) {
+            return;
+        }
+        evictLocal(keys);
+        try {
+            redisHelper.publish(nearCacheConfig.getChannel(), String.join(KEY_SEPARATOR, keys));
+        } catch (Exception exception) {
+            log.error("发送本地缓存失效消息失败", exception);
+        }
+    }
+
+    /**
+     * <h3>使当前节点的本地缓存失效</h3>
+     *
+     * @param keys 缓存的 {@code Key} 集合
+     */
+    private void evictLocal(@NotNull Collection<String> keys) {
+        keys.forEach(key -> {
+            CacheNode cacheNode = cacheMap.remove(key);
+            if (Objects.nonNull(cacheNode)) {
+                totalSize.addAndGet(-cacheNode.size);
+            }
+        });
+    }
+
+    /**
+     * <h3>移除缓存</h3>
+     *
+     * @param key       缓存的 {@code Key}
+     * @param cacheNode 缓存节点，已被替换时不移除
+     */
+    private void remove(@NotNull String key, @NotNull CacheNode cacheNode) {
+        if (cacheMap.remove(key, cacheNode)) {
+            totalSize.addAndGet(-cacheNode.size);
+        }
+    }
+
+    /**
+     * <h3>淘汰超出容量的数据</h3>
+     *
+     * @apiNote 同一时间只有一个线程淘汰，按最后访问时间从旧到新移除，直到总容量不超过上限的
+     * {@link #EVICT_WATERMARK}，之后的写入在再次超出上限前无需淘汰
+     */
+    private void evictOverflow() {
+        if (totalSize.get() <= nearCacheConfig.getMaxSize() || !evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            // 先取出访问时间 避免排序过程中被修改
+            List<Map.Entry<String, CacheNode>> entryList = new ArrayList<>(cacheMap.size());
+            List<Long> accessTimeList = new ArrayList<>(cacheMap.size());
+            cacheMap.forEach((key, cacheNode) -> {
+                entryList.add(Map.entry(key, cacheNode));
+                accessTimeList.add(cacheNode.accessTime);
+            });
+            Integer[] indexes = new Integer[entryList.size()];
+            Arrays.setAll(indexes, index -> index);
+            Arrays.sort(indexes, Comparator.comparingLong(accessTimeList::get));
+            final long watermark = (long) (nearCacheConfig.getMaxSize() * EVICT_WATERMARK);
+            for (int index : indexes) {
+                if (totalSize.get() <= watermark) {
+                    break;
+                }
+                Map.Entry<String, CacheNode> entry = entryList.get(index);
+                remove(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * <h3>缓存节点</h3>
+     */
+    @AllArgsConstructor
+    private static class CacheNode {
+        /**
+         * <h3>实体</h3>
+         */
+        private final RootEntity<?> entity;
+
+        /**
+         * <h3>容量</h3>
+         */
+        private final long size;
+
+        /**
+         * <h3>过期时间</h3>
+         */
+        private final long expireTime;
+
+        /**
+         * <h3>最后访问时间</h3>
+         */
+        private volatile long accessTime;
+    }
+}
@@ -9,13 +9,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
-import java.util.Objects;
-import java.util.Set;
+import java.util.*;
 import java.util.concurrent.TimeUnit;
 
 import static cn.hamm.airpower.exception.ServiceError.REDIS_ERROR;
@@ -198,6 +201,20 @@ public class RedisHelper {
         }
     }
 
+    /**
+     * <h3>批量删除缓存</h3>
+     *
+     * @param keys 缓存的 {@code Key} 集合
+     */
+    public final void del(Collection<String> keys) {
+        try {
+            redisTemplate.delete(keys);
+        } catch (Exception exception) {
+            log.error(REDIS_ERROR.getMessage(), exception);
+            REDIS_ERROR.show();
+        }
+    }
+
     /**
      * <h3>普通缓存获取</h3>
      *
@@ -214,6 +231,25 @@ public class RedisHelper {
         return null;
     }
 
+    /**
+     * <h3>批量获取缓存</h3>
+     *
+     * @param keys 缓存的 {@code Key} 列表
+     * @return 值列表，与 {@code Key} 一一对应，不存在的为 {@code null}
+     */
+    public final @NotNull List<Object> multiGet(@NotNull List<String> keys) {
+        try {
+            List<Object> list = redisTemplate.opsForValue().multiGet(keys);
+            if (Objects.nonNull(list)) {
+                return list;
+            }
+        } catch (Exception exception) {
+            log.error(REDIS_ERROR.getMessage(), exception);
+            REDIS_ERROR.show();
+        }
+        return new ArrayList<>(Collections.nCopies(keys.size(), null));
+    }
+
     /**
      * <h3>普通缓存放入</h3>
      *
@@ -245,6 +281,76 @@ public class RedisHelper {
         }
     }
 
+    /**
+     * <h3>批量放入缓存并设置时间</h3>
+     *
+     * @param map    缓存的 {@code Key} 和值
+     * @param second 缓存时间(秒)
+     * @apiNote 通过管道一次提交，避免逐个写入的往返开销
+     */
+    public final void set(@NotNull Map<String, Object> map, long second) {
+        if (map.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.executePipelined(new SessionCallback<>() {
+                @SuppressWarnings("unchecked")
+                @Override
+                public <K, V> Object execute(@NotNull RedisOperations<K, V> operations) {
+                    ValueOperations<String, Object> valueOperations =
+                            (ValueOperations<String, Object>) operations.opsForValue();
+                    map.forEach((key, value) -> valueOperations.set(key, value.toString(), second, TimeUnit.SECONDS));
+                    return null;
+                }
+            });
+        } catch (Exception exception) {
+            log.error(REDIS_ERROR.getMessage(), exception);
+            REDIS_ERROR.show();
+        }
+    }
+
+    /**
+     * <h3>缓存不存在时放入并设置时间</h3>
+     *
+     * @param key    缓存的 {@code Key}
+     * @param value  缓存的值
+     * @param second 缓存时间(秒)
+     * @return 是否放入成功
+     */
+    public final boolean setIfAbsent(String key, Object value, long second) {
+        try {
+            return Boolean.TRUE.equals(
+                    redisTemplate.opsForValue().setIfAbsent(key, value.toString(), second, TimeUnit.SECONDS)
+            );
+        } catch (Exception exception) {
+            log.error(REDIS_ERROR.getMessage(), exception);
+            REDIS_ERROR.show();
+        }
+        return false;
+    }
+
+    /**
+     * <h3>执行 {@code Lua} 脚本</h3>
+     *
+     * @param script 脚本
+     * @param args   参数，按字符串传入 {@code ARGV}
+     * @return 脚本返回的字符串，返回 {@code false} 或 {@code nil} 时为 {@code null}
+     * @apiNote 参数和返回值均按 {@code UTF-8} 字符串序列化，脚本中用到的 {@code Key} 请通过参数传入
+     */
+    public final @Nullable String execute(@NotNull RedisScript<String> script, Object @NotNull ... args) {
+        StringRedisSerializer serializer = new StringRedisSerializer(StandardCharsets.UTF_8);
+        try {
+            return redisTemplate.execute(
+                    script, serializer, serializer, Collections.emptyList(),
+                    Arrays.stream(args).map(String::valueOf).toArray()
+            );
+        } catch (Exception exception) {
+            log.error(REDIS_ERROR.getMessage(), exception);
+            REDIS_ERROR.show();
+        }
+        return null;
+    }
+
     /**
      * <h3>发布到 {@code channel} 的消息</h3>
      *
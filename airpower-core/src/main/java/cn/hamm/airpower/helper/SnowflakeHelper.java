@@ -0,0 +1,196 @@
+package cn.hamm.airpower.helper;
+
+import cn.hamm.airpower.config.SnowflakeConfig;
+import cn.hamm.airpower.util.SnowflakeUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static cn.hamm.airpower.exception.ServiceError.SERVICE_ERROR;
+
+/**
+ * <h1>雪花ID节点助手</h1>
+ *
+ * @author Hamm.cn
+ * @apiNote 开启雪花ID后在启动时为当前实例分配节点ID，未配置固定节点ID时通过 {@code Redis} 租约分配，
+ * 定时续约，租约丢失时重新分配，关闭时释放；租约的读写均通过 {@code Lua} 脚本原子完成，
+ * 租约到期前未能确认续约成功时清除节点ID，生成ID会直接失败，避免与接手该节点的实例产生重复ID
+ */
+@Component
+@Slf4j
+public class SnowflakeHelper implements InitializingBean, DisposableBean {
+    /**
+     * <h3>占用脚本</h3>
+     */
+    private static final RedisScript<String> ACQUIRE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('SET', ARGV[1], ARGV[2], 'NX', 'EX', ARGV[3]) then
+                return '1'
+            end
+            return '0'
+            """, String.class);
+
+    /**
+     * <h3>续约脚本</h3>
+     *
+     * @apiNote 租约属于当前实例时延长有效期，租约已过期且未被占用时直接取回，已被其他实例占用时返回 {@code 0}
+     */
+    private static final RedisScript<String> RENEW_SCRIPT = new DefaultRedisScript<>("""
+            local token = redis.call('GET', ARGV[1])
+            if token == ARGV[2] then
+                redis.call('EXPIRE', ARGV[1], ARGV[3])
+                return '1'
+            end
+            if not token then
+                redis.call('SET', ARGV[1], ARGV[2], 'EX', ARGV[3])
+                return '1'
+            end
+            return '0'
+            """, String.class);
+
+    /**
+     * <h3>释放脚本</h3>
+     */
+    private static final RedisScript<String> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', ARGV[1]) == ARGV[2] then
+                redis.call('DEL', ARGV[1])
+            end
+            return '1'
+            """, String.class);
+
+    /**
+     * <h3>当前实例的租约标识</h3>
+     */
+    private final String leaseToken = UUID.randomUUID().toString();
+
+    /**
+     * <h3>续约线程</h3>
+     */
+    private ScheduledExecutorService renewExecutor;
+
+    /**
+     * <h3>当前租约的节点ID</h3>
+     */
+    private volatile int leaseNodeId = -1;
+
+    /**
+     * <h3>当前租约确认有效的截止时间</h3>
+     */
+    private volatile long leaseExpireTime;
+
+    /**
+     * <h3>续约间隔(毫秒)</h3>
+     */
+    private long renewMillisecond;
+
+    @Autowired
+    private SnowflakeConfig snowflakeConfig;
+
+    @Autowired
+    private RedisHelper redisHelper;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!snowflakeConfig.isEnabled()) {
+            return;
+        }
+        if (snowflakeConfig.getNodeId() >= 0) {
+            SnowflakeUtil.setNodeId(snowflakeConfig.getNodeId());
+            log.info("雪花ID使用固定节点 {}", snowflakeConfig.getNodeId());
+            return;
+        }
+        acquire();
+        long period = Math.max(1, snowflakeConfig.getLeaseSecond() / 3);
+        renewMillisecond = period * 1000;
+        renewExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "airpower-snowflake-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        renewExecutor.scheduleWithFixedDelay(this::renew, period, period, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (Objects.isNull(renewExecutor)) {
+            return;
+        }
+        renewExecutor.shutdownNow();
+        try {
+            redisHelper.execute(RELEASE_SCRIPT, getLeaseKey(leaseNodeId), leaseToken);
+        } catch (Exception exception) {
+            log.error("释放雪花ID节点租约失败", exception);
+        }
+    }
+
+    /**
+     * <h3>分配一个空闲的节点ID</h3>
+     */
+    private void acquire() {
+        int offset = ThreadLocalRandom.current().nextInt(SnowflakeUtil.MAX_NODE_ID + 1);
+        for (int index = 0; index <= SnowflakeUtil.MAX_NODE_ID; index++) {
+            int nodeId = (offset + index) & SnowflakeUtil.MAX_NODE_ID;
+            final long now = System.currentTimeMillis();
+            if (Objects.equals(redisHelper.execute(
+                    ACQUIRE_SCRIPT, getLeaseKey(nodeId), leaseToken, snowflakeConfig.getLeaseSecond()
+            ), "1")) {
+                leaseNodeId = nodeId;
+                leaseExpireTime = now + snowflakeConfig.getLeaseSecond() * 1000L;
+                SnowflakeUtil.setNodeId(nodeId);
+                log.info("雪花ID分配到节点 {}", nodeId);
+                return;
+            }
+        }
+        SERVICE_ERROR.show("没有空闲的雪花ID节点");
+    }
+
+    /**
+     * <h3>续约当前节点</h3>
+     *
+     * @apiNote 租约已被其他实例占用时清除节点ID并重新分配；续约失败且下次续约前租约就会到期时清除节点ID
+     */
+    private void renew() {
+        final long now = System.currentTimeMillis();
+        try {
+            if (Objects.equals(redisHelper.execute(
+                    RENEW_SCRIPT, getLeaseKey(leaseNodeId), leaseToken, snowflakeConfig.getLeaseSecond()
+            ), "1")) {
+                leaseExpireTime = now + snowflakeConfig.getLeaseSecond() * 1000L;
+                if (SnowflakeUtil.getNodeId() != leaseNodeId) {
+                    SnowflakeUtil.setNodeId(leaseNodeId);
+                    log.info("雪花ID重新取回节点 {}", leaseNodeId);
+                }
+                return;
+            }
+            log.warn("雪花ID节点 {} 的租约已丢失，重新分配", leaseNodeId);
+            SnowflakeUtil.clearNodeId();
+            acquire();
+        } catch (Exception exception) {
+            log.error("雪花ID节点续约失败", exception);
+            if (System.currentTimeMillis() + renewMillisecond >= leaseExpireTime && SnowflakeUtil.getNodeId() >= 0) {
+                SnowflakeUtil.clearNodeId();
+                log.error("雪花ID节点 {} 的租约即将过期且无法续约，暂停生成ID", leaseNodeId);
+            }
+        }
+    }
+
+    /**
+     * <h3>获取节点租约的 {@code Key}</h3>
+     *
+     * @param nodeId 节点ID
+     * @return {@code Key}
+     */
+    private String getLeaseKey(int nodeId) {
+        return snowflakeConfig.getLeasePrefix() + nodeId;
+    }
+}
@@ -1,10 +1,13 @@
 package cn.hamm.airpower.helper;
 
+import cn.hamm.airpower.datasource.DataSourceResolver;
 import cn.hamm.airpower.util.TaskUtil;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.function.Supplier;
+
 /**
  * <h1>事务助手类</h1>
  *
@@ -20,9 +23,34 @@ public class TransactionHelper {
      */
     @Transactional(rollbackFor = Exception.class)
     public void run(@NotNull Function function) {
+        DataSourceResolver.pinPrimary();
         function.run();
     }
 
+    /**
+     * <h3>开始执行一个只读事务</h3>
+     *
+     * @param function 事务包含的方法集合体
+     * @apiNote 在 {@link DataSourceResolver#readFromReplica(Runnable)} 中调用时事务的连接来自从库，事务中不能写入数据
+     */
+    @Transactional(readOnly = true, rollbackFor = Exception.class)
+    public void read(@NotNull Function function) {
+        function.run();
+    }
+
+    /**
+     * <h3>在只读事务中查询</h3>
+     *
+     * @param supplier 查询方法
+     * @param <T>      返回类型
+     * @return 查询结果
+     * @apiNote 事务结束时释放连接，在 {@link DataSourceResolver#readFromReplica(Supplier)} 中调用时连接来自从库
+     */
+    @Transactional(readOnly = true, rollbackFor = Exception.class)
+    public <T> T query(@NotNull Supplier<T> supplier) {
+        return supplier.get();
+    }
+
     @FunctionalInterface
     public interface Function {
         /**
@@ -41,7 +41,7 @@ public abstract class AbstractRequestInterceptor implements HandlerInterceptor {
     /**
      * <h3>缓存的 {@code REQUEST_METHOD_KEY}</h3>
      */
-    protected static final String REQUEST_METHOD_KEY = "REQUEST_METHOD_KEY";
+    public static final String REQUEST_METHOD_KEY = "REQUEST_METHOD_KEY";
 
     @Autowired
     protected ServiceConfig serviceConfig;
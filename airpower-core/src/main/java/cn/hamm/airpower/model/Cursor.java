@@ -0,0 +1,27 @@
+package cn.hamm.airpower.model;
+
+import cn.hamm.airpower.annotation.Description;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * <h1>分页游标</h1>
+ *
+ * @author Hamm.cn
+ */
+@Data
+@Accessors(chain = true)
+@Description("分页游标")
+public class Cursor {
+    /**
+     * <h3>上一页最后一条数据的排序字段值</h3>
+     */
+    @Description("排序字段值")
+    private Object value;
+
+    /**
+     * <h3>上一页最后一条数据的 {@code ID}</h3>
+     */
+    @Description("主键ID")
+    private Long id;
+}
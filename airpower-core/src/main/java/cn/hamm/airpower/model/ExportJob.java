@@ -0,0 +1,89 @@
+package cn.hamm.airpower.model;
+
+import cn.hamm.airpower.annotation.Description;
+import cn.hamm.airpower.enums.ExportPhase;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * <h1>导出任务</h1>
+ *
+ * @author Hamm.cn
+ * @apiNote 以 {@code Json} 存储在 {@code Redis} 中，任意节点均可查询和取消
+ */
+@Data
+@Accessors(chain = true)
+@Description("导出任务")
+public class ExportJob {
+    /**
+     * <h3>文件Code</h3>
+     */
+    @Description("文件Code")
+    private String fileCode;
+
+    /**
+     * <h3>阶段</h3>
+     */
+    @Description("阶段")
+    private ExportPhase phase;
+
+    /**
+     * <h3>已处理的行数</h3>
+     */
+    @Description("已处理的行数")
+    private long rowCount;
+
+    /**
+     * <h3>预估的总行数</h3>
+     *
+     * @apiNote 未统计时为 {@code -1}，无查询条件时来自表统计信息，可能与实际行数不同
+     */
+    @Description("预估的总行数")
+    private long totalCount = -1;
+
+    /**
+     * <h3>开始时间</h3>
+     */
+    @Description("开始时间")
+    private long startTime;
+
+    /**
+     * <h3>最后更新时间</h3>
+     */
+    @Description("最后更新时间")
+    private long updateTime;
+
+    /**
+     * <h3>每秒处理的行数</h3>
+     */
+    @Description("每秒处理的行数")
+    private long rowsPerSecond;
+
+    /**
+     * <h3>导出文件地址</h3>
+     */
+    @Description("导出文件地址")
+    private String url;
+
+    /**
+     * <h3>失败原因</h3>
+     */
+    @Description("失败原因")
+    private String message;
+
+    /**
+     * <h3>创建人ID</h3>
+     *
+     * @apiNote 未登录时创建的任务为 {@code null}
+     */
+    @Description("创建人ID")
+    private Long creatorId;
+
+    /**
+     * <h3>创建时的租户</h3>
+     *
+     * @apiNote 默认数据源为 {@code null}
+     */
+    @Description("创建时的租户")
+    private String tenant;
+}
@@ -0,0 +1,42 @@
+package cn.hamm.airpower.model;
+
+import cn.hamm.airpower.annotation.Description;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * <h1>排队的导出任务</h1>
+ *
+ * @author Hamm.cn
+ * @apiNote 以 {@code Json} 存储在导出队列中，领取任务的节点据此找到服务并还原查询请求
+ */
+@Data
+@Accessors(chain = true)
+@Description("排队的导出任务")
+public class ExportTask {
+    /**
+     * <h3>服务类名</h3>
+     */
+    @Description("服务类名")
+    private String serviceClass;
+
+    /**
+     * <h3>租户</h3>
+     *
+     * @apiNote 发起导出时的数据源参数
+     */
+    @Description("租户")
+    private String tenant;
+
+    /**
+     * <h3>查询请求</h3>
+     */
+    @Description("查询请求")
+    private String request;
+
+    /**
+     * <h3>去重 {@code Key}</h3>
+     */
+    @Description("去重Key")
+    private String dedupKey;
+}
@@ -0,0 +1,41 @@
+package cn.hamm.airpower.model;
+
+import cn.hamm.airpower.annotation.Description;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * <h1>导入结果</h1>
+ *
+ * @author Hamm.cn
+ */
+@Data
+@Accessors(chain = true)
+@Description("导入结果")
+public class ImportResult {
+    /**
+     * <h3>总行数</h3>
+     */
+    @Description("总行数")
+    private long totalCount;
+
+    /**
+     * <h3>成功的行数</h3>
+     */
+    @Description("成功的行数")
+    private long successCount;
+
+    /**
+     * <h3>失败的行数</h3>
+     */
+    @Description("失败的行数")
+    private long failedCount;
+
+    /**
+     * <h3>错误报告的文件Code</h3>
+     *
+     * @apiNote 全部导入成功时为 {@code null}，与导出的文件一样查询和下载
+     */
+    @Description("错误报告的文件Code")
+    private String fileCode;
+}
@@ -0,0 +1,26 @@
+package cn.hamm.airpower.model.query;
+
+import cn.hamm.airpower.annotation.Description;
+import cn.hamm.airpower.root.RootModel;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.List;
+
+/**
+ * <h1>批量操作请求</h1>
+ *
+ * @param <M> 数据模型
+ * @author Hamm.cn
+ * @apiNote 传入 {@code ID} 列表时按 {@code ID} 操作，否则按过滤器查询出的数据操作，过滤器不允许为空
+ */
+@EqualsAndHashCode(callSuper = true)
+@Data
+@Description("批量操作请求")
+public class QueryBatchRequest<M extends RootModel<M>> extends QueryRequest<M> {
+    /**
+     * <h3>主键 {@code ID} 列表</h3>
+     */
+    @Description("ID列表")
+    private List<Long> idList = null;
+}
@@ -0,0 +1,44 @@
+package cn.hamm.airpower.model.query;
+
+import cn.hamm.airpower.annotation.Description;
+import cn.hamm.airpower.model.Cursor;
+import cn.hamm.airpower.root.RootModel;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * <h1>游标分页请求</h1>
+ *
+ * @param <M> 数据模型
+ * @author Hamm.cn
+ * @apiNote 按 {@code (排序字段, ID)} 从上一页的最后一条数据继续向后查询，不使用 {@code OFFSET}，分页信息仅使用分页条数
+ */
+@EqualsAndHashCode(callSuper = true)
+@Data
+@Description("游标分页请求")
+public class QueryCursorRequest<M extends RootModel<M>> extends QueryPageRequest<M> {
+    /**
+     * <h3>游标</h3>
+     *
+     * @apiNote 不传入则查询第一页，后续页传入上一页响应中返回的游标
+     */
+    @Description("游标")
+    private Cursor cursor = null;
+
+    /**
+     * <h3>合并前置方法处理后的分页请求</h3>
+     *
+     * @param queryPageRequest 前置方法返回的分页请求
+     * @return 游标分页请求
+     */
+    public final QueryCursorRequest<M> merge(@NotNull QueryPageRequest<M> queryPageRequest) {
+        if (queryPageRequest == this) {
+            return this;
+        }
+        setFilter(queryPageRequest.getFilter());
+        setSort(queryPageRequest.getSort());
+        setPage(queryPageRequest.getPage());
+        return this;
+    }
+}
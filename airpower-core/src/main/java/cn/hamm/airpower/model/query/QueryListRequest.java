@@ -6,6 +6,8 @@ import cn.hamm.airpower.root.RootModel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
+import java.util.Set;
+
 /**
  * <h1>查询列表请求</h1>
  *
@@ -21,4 +23,12 @@ public class QueryListRequest<M extends RootModel<M>> extends QueryRequest<M> {
      */
     @Description("排序对象")
     private Sort sort = null;
+
+    /**
+     * <h3>查询的字段</h3>
+     *
+     * @apiNote 传入后仅查询这些字段，其他字段将返回 {@code null}，包含关联字段时查询全部字段
+     */
+    @Description("查询的字段")
+    private Set<String> fields = null;
 }
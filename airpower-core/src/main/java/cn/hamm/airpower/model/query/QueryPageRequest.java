@@ -1,6 +1,7 @@
 package cn.hamm.airpower.model.query;
 
 import cn.hamm.airpower.annotation.Description;
+import cn.hamm.airpower.enums.PageCountMode;
 import cn.hamm.airpower.model.Page;
 import cn.hamm.airpower.root.RootModel;
 import lombok.Data;
@@ -21,4 +22,12 @@ public class QueryPageRequest<M extends RootModel<M>> extends QueryListRequest<M
      */
     @Description("分页信息")
     private Page page = new Page();
+
+    /**
+     * <h3>总数统计方式</h3>
+     *
+     * @apiNote 不传入时使用全局配置
+     */
+    @Description("总数统计方式")
+    private PageCountMode countMode = null;
 }
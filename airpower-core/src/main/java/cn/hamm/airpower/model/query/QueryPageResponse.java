@@ -1,6 +1,7 @@
 package cn.hamm.airpower.model.query;
 
 import cn.hamm.airpower.annotation.Description;
+import cn.hamm.airpower.model.Cursor;
 import cn.hamm.airpower.model.Page;
 import cn.hamm.airpower.model.Sort;
 import cn.hamm.airpower.root.RootModel;
@@ -19,17 +20,40 @@ import java.util.List;
 @Accessors(chain = true)
 @Description("分页查询响应类")
 public class QueryPageResponse<M extends RootModel<M>> {
+    /**
+     * <h3>未统计总数</h3>
+     */
+    public static final long TOTAL_UNKNOWN = -1;
+
     /**
      * <h3>总数量</h3>
+     *
+     * @apiNote 未统计时为 {@link #TOTAL_UNKNOWN}
      */
     @Description("总数量")
-    private int total = 0;
+    private long total = 0;
 
     /**
      * <h3>总页数</h3>
+     *
+     * @apiNote 未统计时为 {@link #TOTAL_UNKNOWN}
      */
     @Description("总页数")
-    private int pageCount = 0;
+    private long pageCount = 0;
+
+    /**
+     * <h3>是否有下一页</h3>
+     */
+    @Description("是否有下一页")
+    private boolean hasNext = false;
+
+    /**
+     * <h3>总数量是否精确</h3>
+     *
+     * @apiNote 缓存或估算的总数只用于展示，是否有下一页以 {@link #hasNext} 为准
+     */
+    @Description("总数量是否精确")
+    private boolean totalExact = true;
 
     /**
      * <h3>数据信息</h3>
@@ -48,4 +72,12 @@ public class QueryPageResponse<M extends RootModel<M>> {
      */
     @Description("排序信息")
     private Sort sort = new Sort();
+
+    /**
+     * <h3>下一页的游标</h3>
+     *
+     * @apiNote 仅游标分页返回，为 {@code null} 时表示没有更多数据
+     */
+    @Description("下一页的游标")
+    private Cursor cursor = null;
 }
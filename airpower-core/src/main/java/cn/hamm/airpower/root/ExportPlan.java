@@ -0,0 +1,753 @@
+package cn.hamm.airpower.root;
+
+import cn.hamm.airpower.annotation.ExcelColumn;
+import cn.hamm.airpower.exception.ServiceException;
+import cn.hamm.airpower.interfaces.IDictionary;
+import cn.hamm.airpower.util.DateTimeUtil;
+import cn.hamm.airpower.util.ReflectUtil;
+import cn.hamm.airpower.util.ValidateUtil;
+import cn.hamm.airpower.validate.dictionary.Dictionary;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static cn.hamm.airpower.config.Constant.*;
+import static cn.hamm.airpower.exception.ServiceError.PARAM_INVALID;
+
+/**
+ * <h1>导出计划</h1>
+ *
+ * @author Hamm.cn
+ * @apiNote 按类缓存标记了 {@link ExcelColumn} 的列、列的读写方法和字典的文本表，导出时直接从字段的值格式化每一行，
+ * 导入时按表头的列描述反向解析每一行；导出 {@code Excel} 时表头和字典的文本写入共享字符串，其余文本内联在单元格中
+ */
+final class ExportPlan {
+    /**
+     * <h3>导出计划缓存</h3>
+     */
+    private static final ConcurrentHashMap<Class<?>, ExportPlan> PLAN_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * <h3>逗号</h3>
+     */
+    private static final char COMMA = STRING_COMMA.charAt(0);
+
+    /**
+     * <h3>换行</h3>
+     */
+    private static final char LINE_BREAK = REGEX_LINE_BREAK.charAt(0);
+
+    /**
+     * <h3>回车</h3>
+     */
+    private static final char CARRIAGE_RETURN = '\r';
+
+    /**
+     * <h3>空格</h3>
+     */
+    private static final char BLANK = STRING_BLANK.charAt(0);
+
+    /**
+     * <h3>引号</h3>
+     */
+    private static final char QUOTE = '"';
+
+    /**
+     * <h3>字节顺序标记</h3>
+     */
+    private static final String BOM = "\uFEFF";
+
+    /**
+     * <h3>字节顺序标记字符</h3>
+     */
+    private static final char BOM_CHAR = BOM.charAt(0);
+
+    /**
+     * <h3>导入的一行允许的最大字符数</h3>
+     *
+     * @apiNote 引号未闭合时避免将后续的整个文件读入同一行
+     */
+    private static final int MAX_ROW_LENGTH = 1024 * 1024;
+
+    /**
+     * <h3>{@code Excel} 的时间日期样式</h3>
+     */
+    static final int XLSX_STYLE_DATETIME = 1;
+
+    /**
+     * <h3>{@code Excel} 的表头样式</h3>
+     */
+    static final int XLSX_STYLE_HEADER = 2;
+
+    /**
+     * <h3>{@code Excel} 的空单元格</h3>
+     */
+    private static final String XLSX_EMPTY_CELL = "<c/>";
+
+    /**
+     * <h3>表头行</h3>
+     */
+    @Getter
+    private final String header;
+
+    /**
+     * <h3>导出列</h3>
+     */
+    private final ExportColumn[] columns;
+
+    /**
+     * <h3>列描述和导出列</h3>
+     */
+    private final Map<String, ExportColumn> columnMap = new HashMap<>();
+
+    /**
+     * <h3>共享字符串和序号</h3>
+     *
+     * @apiNote 只包含表头和字典的文本，数量不随导出的行数增长，各分区并行写入时序号一致
+     */
+    private final Map<String, Integer> sharedStringMap = new LinkedHashMap<>();
+
+    /**
+     * <h3>{@code Excel} 的表头行</h3>
+     */
+    @Getter
+    private final String xlsxHeader;
+
+    /**
+     * <h3>创建导出计划</h3>
+     *
+     * @param clazz 类
+     */
+    private ExportPlan(@NotNull Class<?> clazz) {
+        List<Field> fieldList = ReflectUtil.getFieldList(clazz).stream()
+                .filter(field -> Objects.nonNull(ReflectUtil.getAnnotation(ExcelColumn.class, field)))
+                .toList();
+        header = String.join(STRING_COMMA, fieldList.stream().map(ReflectUtil::getDescription).toList());
+        columns = fieldList.stream().map(ExportColumn::new).toArray(ExportColumn[]::new);
+        StringBuilder row = new StringBuilder("<row>");
+        for (ExportColumn column : columns) {
+            columnMap.putIfAbsent(column.name, column);
+            sharedStringMap.putIfAbsent(column.name, sharedStringMap.size());
+            row.append("<c t=\"s\" s=\"").append(XLSX_STYLE_HEADER).append("\"><v>")
+                    .append(sharedStringMap.get(column.name)).append("</v></c>");
+        }
+        xlsxHeader = row.append("</row>").toString();
+        for (ExportColumn column : columns) {
+            column.getLabelList().forEach(label -> sharedStringMap.putIfAbsent(label, sharedStringMap.size()));
+        }
+    }
+
+    /**
+     * <h3>获取类的导出计划</h3>
+     *
+     * @param clazz 类
+     * @return 导出计划
+     */
+    static @NotNull ExportPlan of(@NotNull Class<?> clazz) {
+        return PLAN_MAP.computeIfAbsent(clazz, ExportPlan::new);
+    }
+
+    /**
+     * <h3>将对象格式化为一行追加到末尾</h3>
+     *
+     * @param row    行
+     * @param target 对象
+     */
+    void appendRow(@NotNull StringBuilder row, @NotNull Object target) {
+        for (int index = 0; index < columns.length; index++) {
+            if (index > 0) {
+                row.append(STRING_COMMA);
+            }
+            appendCell(row, columns[index].format(target));
+        }
+    }
+
+    /**
+     * <h3>将对象格式化为一行</h3>
+     *
+     * @param target 对象
+     * @return 行
+     */
+    @NotNull String getRow(@NotNull Object target) {
+        StringBuilder row = new StringBuilder();
+        appendRow(row, target);
+        return row.toString();
+    }
+
+    /**
+     * <h3>将对象格式化为 {@code Excel} 的一行追加到末尾</h3>
+     *
+     * @param row    行
+     * @param target 对象
+     */
+    void appendXlsxRow(@NotNull StringBuilder row, @NotNull Object target) {
+        row.append("<row>");
+        for (ExportColumn column : columns) {
+            column.appendXlsxCell(row, target, sharedStringMap);
+        }
+        row.append("</row>");
+    }
+
+    /**
+     * <h3>获取共享字符串列表</h3>
+     *
+     * @return 按序号排列的共享字符串
+     */
+    @NotNull List<String> getSharedStringList() {
+        return List.copyOf(sharedStringMap.keySet());
+    }
+
+    /**
+     * <h3>获取列数据类型列表</h3>
+     *
+     * @return 按列排列的数据类型
+     */
+    @NotNull List<ExcelColumn.Type> getTypeList() {
+        return Arrays.stream(columns).map(column -> column.type).toList();
+    }
+
+    /**
+     * <h3>按表头获取导入列</h3>
+     *
+     * @param headerCellList 表头的单元格列表
+     * @return 与表头一一对应的导入列，未匹配的列为 {@code null}
+     */
+    ExportColumn @NotNull [] getImportColumns(@NotNull List<String> headerCellList) {
+        ExportColumn[] importColumns = new ExportColumn[headerCellList.size()];
+        for (int index = 0; index < importColumns.length; index++) {
+            importColumns[index] = columnMap.get(headerCellList.get(index).replace(BOM, STRING_EMPTY).trim());
+        }
+        return importColumns;
+    }
+
+    /**
+     * <h3>将一行解析到对象</h3>
+     *
+     * @param target        对象
+     * @param importColumns 导入列
+     * @param cellList      单元格列表
+     */
+    static void parseRow(@NotNull Object target, ExportColumn @NotNull [] importColumns,
+                         @NotNull List<String> cellList) {
+        final int length = Math.min(importColumns.length, cellList.size());
+        for (int index = 0; index < length; index++) {
+            if (Objects.nonNull(importColumns[index])) {
+                importColumns[index].parse(target, cellList.get(index));
+            }
+        }
+    }
+
+    /**
+     * <h3>读取一行</h3>
+     *
+     * @param reader 读取器
+     * @return 单元格列表，已读取完毕时返回 {@code null}
+     * @throws IOException 读取失败
+     * @apiNote 按 {@code RFC 4180} 解析，只有单元格开头的引号表示引号包裹，引号内的逗号、换行、回车和成对的引号原样保留；
+     * 行尾支持 {@code \n}、{@code \r\n} 和 {@code \r}
+     */
+    static @Nullable List<String> readRow(@NotNull BufferedReader reader) throws IOException {
+        int character = reader.read();
+        if (character < 0) {
+            return null;
+        }
+        List<String> cellList = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        boolean cellStart = true;
+        int rowLength = 0;
+        for (; character >= 0; character = reader.read()) {
+            PARAM_INVALID.when(++rowLength > MAX_ROW_LENGTH, "导入的文件存在过长的行或未闭合的引号");
+            if (quoted) {
+                if (character != QUOTE) {
+                    cell.append((char) character);
+                    continue;
+                }
+                reader.mark(1);
+                if (reader.read() == QUOTE) {
+                    cell.append(QUOTE);
+                    continue;
+                }
+                reader.reset();
+                quoted = false;
+                continue;
+            }
+            if (character == COMMA) {
+                cellList.add(cell.toString());
+                cell.setLength(0);
+                cellStart = true;
+                continue;
+            }
+            if (character == LINE_BREAK) {
+                break;
+            }
+            if (character == CARRIAGE_RETURN) {
+                reader.mark(1);
+                if (reader.read() != LINE_BREAK) {
+                    reader.reset();
+                }
+                break;
+            }
+            if (cellStart && character == BOM_CHAR && cellList.isEmpty()) {
+                continue;
+            }
+            if (cellStart && character == QUOTE) {
+                quoted = true;
+            } else {
+                cell.append((char) character);
+            }
+            cellStart = false;
+        }
+        cellList.add(cell.toString());
+        return cellList;
+    }
+
+    /**
+     * <h3>将单元格列表追加到末尾</h3>
+     *
+     * @param row      行
+     * @param cellList 单元格列表
+     */
+    static void appendCells(@NotNull StringBuilder row, @NotNull List<String> cellList) {
+        for (int index = 0; index < cellList.size(); index++) {
+            if (index > 0) {
+                row.append(STRING_COMMA);
+            }
+            appendCell(row, cellList.get(index));
+        }
+    }
+
+    /**
+     * <h3>追加单元格</h3>
+     *
+     * @param row  行
+     * @param cell 单元格
+     * @apiNote 按 {@code RFC 4180} 输出，包含引号、逗号、回车或换行的单元格用引号包裹，其中的引号成对转义
+     */
+    static void appendCell(@NotNull StringBuilder row, @NotNull String cell) {
+        final int length = cell.length();
+        int index = 0;
+        while (index < length) {
+            char character = cell.charAt(index);
+            if (character == QUOTE || character == COMMA || character == LINE_BREAK || character == CARRIAGE_RETURN) {
+                break;
+            }
+            index++;
+        }
+        if (index == length) {
+            row.append(cell);
+            return;
+        }
+        row.append(QUOTE);
+        for (index = 0; index < length; index++) {
+            char character = cell.charAt(index);
+            if (character == QUOTE) {
+                row.append(QUOTE);
+            }
+            row.append(character);
+        }
+        row.append(QUOTE);
+    }
+
+    /**
+     * <h3>将文本转义后追加到 {@code XML} 中</h3>
+     *
+     * @param xml  {@code XML}
+     * @param text 文本
+     * @apiNote {@code XML} 不允许的控制字符直接丢弃
+     */
+    static void appendXml(@NotNull StringBuilder xml, @NotNull String text) {
+        final int length = text.length();
+        for (int index = 0; index < length; index++) {
+            char character = text.charAt(index);
+            switch (character) {
+                case '&' -> xml.append("&amp;");
+                case '<' -> xml.append("&lt;");
+                case '>' -> xml.append("&gt;");
+                case '"' -> xml.append("&quot;");
+                default -> {
+                    if (character >= BLANK || character == '\t' || character == '\n' || character == '\r') {
+                        if (character != '\uFFFE' && character != '\uFFFF') {
+                            xml.append(character);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * <h3>追加 {@code Excel} 的内联文本单元格</h3>
+     *
+     * @param row  行
+     * @param text 文本
+     */
+    private static void appendXlsxText(@NotNull StringBuilder row, @NotNull String text) {
+        if (text.isEmpty()) {
+            row.append(XLSX_EMPTY_CELL);
+            return;
+        }
+        row.append("<c t=\"inlineStr\"><is><t");
+        if (Character.isWhitespace(text.charAt(0)) || Character.isWhitespace(text.charAt(text.length() - 1))) {
+            row.append(" xml:space=\"preserve\"");
+        }
+        row.append('>');
+        appendXml(row, text);
+        row.append("</t></is></c>");
+    }
+
+    /**
+     * <h1>导出列</h1>
+     */
+    static final class ExportColumn {
+        /**
+         * <h3>读取方法的类型</h3>
+         */
+        private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+        /**
+         * <h3>写入方法的类型</h3>
+         */
+        private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+        /**
+         * <h3>类型转换服务</h3>
+         */
+        private static final ConversionService CONVERSION_SERVICE = DefaultConversionService.getSharedInstance();
+
+        /**
+         * <h3>每天的毫秒数</h3>
+         */
+        private static final long MILLISECONDS_PER_DAY = (long) DateTimeUtil.SECOND_PER_DAY
+                * DateTimeUtil.MILLISECONDS_PER_SECOND;
+
+        /**
+         * <h3>{@code 1970-01-01} 在 {@code Excel} 中的天数</h3>
+         */
+        private static final int XLSX_EPOCH_DAY = 25569;
+
+        /**
+         * <h3>非数字</h3>
+         */
+        private static final String STRING_NAN = "NaN";
+
+        /**
+         * <h3>无穷大</h3>
+         */
+        private static final String STRING_INFINITY = "Infinity";
+
+        /**
+         * <h3>列描述</h3>
+         */
+        private final String name;
+
+        /**
+         * <h3>字段类型</h3>
+         */
+        private final Class<?> fieldType;
+
+        /**
+         * <h3>列数据类型</h3>
+         */
+        private final ExcelColumn.Type type;
+
+        /**
+         * <h3>字段的读取方法</h3>
+         */
+        private final MethodHandle getter;
+
+        /**
+         * <h3>字段的写入方法</h3>
+         */
+        private final MethodHandle setter;
+
+        /**
+         * <h3>字典的值和文本</h3>
+         *
+         * @apiNote 未标记 {@link Dictionary} 时为 {@code null}
+         */
+        private final Map<Integer, String> labelMap;
+
+        /**
+         * <h3>字典的文本和值</h3>
+         *
+         * @apiNote 未标记 {@link Dictionary} 时为 {@code null}
+         */
+        private final Map<String, Integer> keyMap;
+
+        /**
+         * <h3>创建导出列</h3>
+         *
+         * @param field 字段
+         */
+        private ExportColumn(@NotNull Field field) {
+            this.name = ReflectUtil.getDescription(field);
+            this.fieldType = field.getType();
+            this.type = Objects.requireNonNull(ReflectUtil.getAnnotation(ExcelColumn.class, field)).value();
+            Dictionary dictionary = ReflectUtil.getAnnotation(Dictionary.class, field);
+            if (type == ExcelColumn.Type.DICTIONARY && Objects.nonNull(dictionary)) {
+                labelMap = new HashMap<>();
+                keyMap = new HashMap<>();
+                for (IDictionary item : dictionary.value().getEnumConstants()) {
+                    labelMap.putIfAbsent(item.getKey(), item.getLabel());
+                    keyMap.putIfAbsent(item.getLabel(), item.getKey());
+                }
+            } else {
+                labelMap = null;
+                keyMap = null;
+            }
+            try {
+                field.setAccessible(true);
+                this.getter = MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE);
+                this.setter = MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+            } catch (Exception exception) {
+                throw new ServiceException(exception);
+            }
+        }
+
+        /**
+         * <h3>格式化对象的列值</h3>
+         *
+         * @param target 对象
+         * @return 单元格的值，无法按列数据类型格式化时原样输出
+         */
+        @NotNull String format(@NotNull Object target) {
+            Object value = getValue(target);
+            String text = Objects.isNull(value) ? STRING_EMPTY : value.toString();
+            if (text.isEmpty()) {
+                value = STRING_LINE;
+                text = STRING_LINE;
+            }
+            return switch (type) {
+                case DATETIME -> {
+                    Long milliSecond = toLong(value, text);
+                    yield Objects.isNull(milliSecond) ? text : REGEX_TAB + DateTimeUtil.format(milliSecond);
+                }
+                case TEXT -> REGEX_TAB + text;
+                case BOOLEAN -> value instanceof Boolean bool ? (bool ? STRING_YES : STRING_NO) : text;
+                case DICTIONARY -> getLabel(value, text);
+                default -> text;
+            };
+        }
+
+        /**
+         * <h3>将对象的列值追加为 {@code Excel} 的单元格</h3>
+         *
+         * @param row             行
+         * @param target          对象
+         * @param sharedStringMap 共享字符串和序号
+         * @apiNote 时间日期写为带日期格式的数字，数字和布尔值写为对应类型，字典写为文本，无法按列数据类型写入时写为文本；
+         * 超出安全整数范围的整数写为文本，与 {@link RootIdSerializer} 的规则一致，避免 {@code Excel} 只保留 {@code 15} 位精度
+         */
+        void appendXlsxCell(
+                @NotNull StringBuilder row, @NotNull Object target, @NotNull Map<String, Integer> sharedStringMap
+        ) {
+            final Object value = getValue(target);
+            String text = Objects.isNull(value) ? STRING_EMPTY : value.toString();
+            if (text.isEmpty()) {
+                row.append(XLSX_EMPTY_CELL);
+                return;
+            }
+            switch (type) {
+                case DATETIME -> {
+                    Long milliSecond = toLong(value, text);
+                    if (Objects.nonNull(milliSecond)) {
+                        row.append("<c s=\"").append(XLSX_STYLE_DATETIME).append("\"><v>")
+                                .append(toXlsxDateTime(milliSecond)).append("</v></c>");
+                        return;
+                    }
+                }
+                case NUMBER -> {
+                    if (value instanceof Long number && !RootIdSerializer.isSafeInteger(number)) {
+                        break;
+                    }
+                    if (value instanceof Number && !STRING_NAN.equals(text) && !text.contains(STRING_INFINITY)) {
+                        row.append("<c><v>").append(text).append("</v></c>");
+                        return;
+                    }
+                }
+                case BOOLEAN -> {
+                    if (value instanceof Boolean bool) {
+                        row.append("<c t=\"b\"><v>").append(bool ? 1 : 0).append("</v></c>");
+                        return;
+                    }
+                }
+                case DICTIONARY -> {
+                    text = getLabel(value, text);
+                    Integer index = sharedStringMap.get(text);
+                    if (Objects.nonNull(index)) {
+                        row.append("<c t=\"s\"><v>").append(index).append("</v></c>");
+                        return;
+                    }
+                }
+                default -> {
+                }
+            }
+            appendXlsxText(row, text);
+        }
+
+        /**
+         * <h3>获取字典列的文本</h3>
+         *
+         * @param value 值
+         * @param text  值的文本
+         * @return 字典的文本，无法匹配时原样输出
+         */
+        private @NotNull String getLabel(@NotNull Object value, @NotNull String text) {
+            if (value instanceof IDictionary dict) {
+                return dict.getLabel();
+            }
+            if (Objects.isNull(labelMap)) {
+                return text;
+            }
+            Long key = toLong(value, text);
+            if (Objects.isNull(key) || key < Integer.MIN_VALUE || key > Integer.MAX_VALUE) {
+                return text;
+            }
+            return Objects.requireNonNullElse(labelMap.get(key.intValue()), text);
+        }
+
+        /**
+         * <h3>获取字典的全部文本</h3>
+         *
+         * @return 字典的文本，不是字典列时为空
+         */
+        private @NotNull List<String> getLabelList() {
+            if (type != ExcelColumn.Type.DICTIONARY) {
+                return List.of();
+            }
+            if (fieldType.isEnum() && IDictionary.class.isAssignableFrom(fieldType)) {
+                return Arrays.stream(fieldType.getEnumConstants())
+                        .map(item -> ((IDictionary) item).getLabel())
+                        .toList();
+            }
+            return Objects.isNull(labelMap) ? List.of() : List.copyOf(labelMap.values());
+        }
+
+        /**
+         * <h3>转换为 {@code Excel} 的时间日期</h3>
+         *
+         * @param milliSecond 毫秒
+         * @return 以 {@code 1900} 年为起点按默认时区计算的天数
+         */
+        private static double toXlsxDateTime(long milliSecond) {
+            return (milliSecond + DateTimeUtil.getOffsetMilliSecond(milliSecond)) / (double) MILLISECONDS_PER_DAY
+                    + XLSX_EPOCH_DAY;
+        }
+
+        /**
+         * <h3>将单元格解析为列值写入对象</h3>
+         *
+         * @param target 对象
+         * @param cell   单元格
+         * @apiNote 空单元格和 {@code -} 视为未填写，字典列按文本反查值，无法解析时抛出参数错误
+         */
+        void parse(@NotNull Object target, @NotNull String cell) {
+            String text = (cell.startsWith(REGEX_TAB) ? cell.substring(REGEX_TAB.length()) : cell).trim();
+            if (text.isEmpty() || STRING_LINE.equals(text)) {
+                return;
+            }
+            Object value;
+            try {
+                value = CONVERSION_SERVICE.convert(switch (type) {
+                    case DATETIME -> ValidateUtil.isInteger(text) ? text : DateTimeUtil.parse(text);
+                    case BOOLEAN -> parseBoolean(text);
+                    case DICTIONARY -> parseDictionary(text);
+                    default -> text;
+                }, fieldType);
+            } catch (RuntimeException exception) {
+                throw new ServiceException(PARAM_INVALID, name + "格式不正确：" + text);
+            }
+            try {
+                setter.invokeExact(target, value);
+            } catch (Throwable throwable) {
+                throw new ServiceException(throwable.getMessage());
+            }
+        }
+
+        /**
+         * <h3>按是否文本解析列值</h3>
+         *
+         * @param text 单元格文本
+         * @return 布尔值，未匹配时原样返回
+         */
+        private static @NotNull Object parseBoolean(@NotNull String text) {
+            if (STRING_YES.equals(text)) {
+                return Boolean.TRUE;
+            }
+            return STRING_NO.equals(text) ? Boolean.FALSE : text;
+        }
+
+        /**
+         * <h3>按字典文本解析列值</h3>
+         *
+         * @param text 单元格文本
+         * @return 字典项或字典的值，未匹配时原样返回
+         */
+        private @NotNull Object parseDictionary(@NotNull String text) {
+            if (fieldType.isEnum() && IDictionary.class.isAssignableFrom(fieldType)) {
+                for (Object constant : fieldType.getEnumConstants()) {
+                    IDictionary item = (IDictionary) constant;
+                    if (item.getLabel().equals(text) || String.valueOf(item.getKey()).equals(text)) {
+                        return item;
+                    }
+                }
+                return text;
+            }
+            if (Objects.isNull(keyMap)) {
+                return text;
+            }
+            Integer key = keyMap.get(text);
+            return Objects.isNull(key) ? text : key;
+        }
+
+        /**
+         * <h3>读取字段的值</h3>
+         *
+         * @param target 对象
+         * @return 值
+         */
+        private @Nullable Object getValue(@NotNull Object target) {
+            try {
+                return (Object) getter.invokeExact(target);
+            } catch (Throwable throwable) {
+                throw new ServiceException(throwable.getMessage());
+            }
+        }
+
+        /**
+         * <h3>转换为整数</h3>
+         *
+         * @param value 值
+         * @param text  值的文本
+         * @return 整数，无法转换时返回 {@code null}
+         */
+        private static @Nullable Long toLong(@NotNull Object value, @NotNull String text) {
+            if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                return ((Number) value).longValue();
+            }
+            try {
+                return Long.parseLong(text);
+            } catch (NumberFormatException exception) {
+                return null;
+            }
+        }
+    }
+}
@@ -10,6 +10,7 @@ import cn.hamm.airpower.interfaces.IEntity;
 import cn.hamm.airpower.interfaces.IEntityAction;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
@@ -24,7 +25,6 @@ import java.io.Serializable;
 
 import static cn.hamm.airpower.annotation.ExcelColumn.Type.*;
 import static cn.hamm.airpower.annotation.Search.Mode.EQUALS;
-import static jakarta.persistence.GenerationType.IDENTITY;
 
 /**
  * <h1>实体根类</h1>
@@ -47,7 +47,8 @@ public class RootEntity<E extends RootEntity<E>> extends RootModel<E>
     @Description("主键ID")
     @Id
     @Search(EQUALS)
-    @GeneratedValue(strategy = IDENTITY)
+    @RootIdGenerator.GeneratedId
+    @JsonSerialize(using = RootIdSerializer.class)
     @Column(nullable = false, columnDefinition = "bigint UNSIGNED comment 'ID'")
     @Min(value = 0, message = "ID必须大于{value}")
     @ExcelColumn(NUMBER)
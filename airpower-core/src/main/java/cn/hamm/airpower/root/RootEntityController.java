@@ -6,26 +6,37 @@ import cn.hamm.airpower.annotation.Filter;
 import cn.hamm.airpower.annotation.Permission;
 import cn.hamm.airpower.enums.Api;
 import cn.hamm.airpower.exception.ServiceException;
+import cn.hamm.airpower.helper.ExportHelper;
 import cn.hamm.airpower.interfaces.IEntityAction;
 import cn.hamm.airpower.model.Json;
+import cn.hamm.airpower.model.query.QueryBatchRequest;
+import cn.hamm.airpower.model.query.QueryCursorRequest;
 import cn.hamm.airpower.model.query.QueryExport;
 import cn.hamm.airpower.model.query.QueryListRequest;
 import cn.hamm.airpower.model.query.QueryPageRequest;
 import cn.hamm.airpower.model.query.QueryPageResponse;
+import cn.hamm.airpower.util.ReflectUtil;
 import cn.hamm.airpower.util.TaskUtil;
+import jakarta.servlet.http.HttpServletResponse;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
 
 import static cn.hamm.airpower.enums.Api.*;
 import static cn.hamm.airpower.exception.ServiceError.API_SERVICE_UNSUPPORTED;
+import static cn.hamm.airpower.exception.ServiceError.PARAM_MISSING;
+import static cn.hamm.airpower.interceptor.AbstractRequestInterceptor.REQUEST_METHOD_KEY;
 
 /**
  * <h1>实体控制器根类</h1>
@@ -44,6 +55,9 @@ public class RootEntityController<
     @Autowired
     protected S service;
 
+    @Autowired
+    private ExportHelper exportHelper;
+
     /**
      * <h3>创建导出任务</h3>
      */
@@ -65,6 +79,61 @@ public class RootEntityController<
         return Json.data(service.queryExport(queryExport), "请下载导出的文件");
     }
 
+    /**
+     * <h3>查询导出任务</h3>
+     *
+     * @apiNote 返回导出的阶段、已处理和预估的行数、开始时间和处理速度
+     */
+    @Description("查询导出任务")
+    @PostMapping("queryExportJob")
+    @Permission(authorize = false)
+    public Json queryExportJob(@RequestBody @Validated QueryExport queryExport) {
+        checkApiAvailableStatus(QueryExportJob);
+        // 查询无需登录 不返回创建人和租户
+        return Json.data(service.getExportJob(queryExport).setCreatorId(null).setTenant(null));
+    }
+
+    /**
+     * <h3>取消导出任务</h3>
+     */
+    @Description("取消导出任务")
+    @PostMapping("cancelExport")
+    public Json cancelExport(@RequestBody @Validated QueryExport queryExport) {
+        checkApiAvailableStatus(CancelExport);
+        service.cancelExport(queryExport);
+        return Json.success("导出任务取消中");
+    }
+
+    /**
+     * <h3>下载导出的文件</h3>
+     *
+     * @apiNote 支持 {@code Range} 断点续传和 {@code ETag} 缓存校验，导出文件存储在其他位置时请使用查询到的地址下载
+     */
+    @Description("下载导出的文件")
+    @GetMapping("downloadExport")
+    @Permission(authorize = false)
+    public void downloadExport(@Validated QueryExport queryExport, HttpServletResponse response) {
+        checkApiAvailableStatus(DownloadExport);
+        exportHelper.download(service.getExportFile(queryExport), request, response);
+    }
+
+    /**
+     * <h3>导入</h3>
+     *
+     * @apiNote 上传与导出格式相同的 {@code CSV} 文件，返回导入的行数和错误报告的文件Code，错误报告与导出的文件一样查询和下载
+     */
+    @Description("导入")
+    @PostMapping("import")
+    public Json importFile(@RequestParam("file") MultipartFile file) {
+        checkApiAvailableStatus(Import);
+        PARAM_MISSING.when(file.isEmpty(), "请上传导入的文件");
+        try (InputStream inputStream = file.getInputStream()) {
+            return Json.data(service.importFile(inputStream), "导入完成");
+        } catch (IOException exception) {
+            throw new ServiceException(exception);
+        }
+    }
+
     /**
      * <h3>添加一条新数据接口</h3>
      *
@@ -146,6 +215,26 @@ public class RootEntityController<
         return Json.data(afterGetDetail(service.get(source.getId())));
     }
 
+    /**
+     * <h3>批量查询详情数据</h3>
+     *
+     * @apiNote 可被子控制器类注解 {@link Extends} 继承或忽略，不建议重写，可使用前后置方法来处理业务逻辑。
+     * 按传入的 {@code ID} 顺序返回，查询不到的 {@code ID} 跳过
+     * @see #afterGetDetail(E)
+     */
+    @Description("批量查询详情")
+    @PostMapping("getByIds")
+    @Filter(WhenGetDetail.class)
+    public Json getByIds(@RequestBody QueryBatchRequest<E> queryBatchRequest) {
+        checkApiAvailableStatus(GetByIds);
+        PARAM_MISSING.whenNull(queryBatchRequest);
+        List<Long> idList = queryBatchRequest.getIdList();
+        PARAM_MISSING.when(Objects.isNull(idList) || idList.isEmpty(), "请传入ID列表");
+        List<E> list = service.getByIds(idList);
+        list.replaceAll(this::afterGetDetail);
+        return Json.data(list);
+    }
+
     /**
      * <h3>禁用一条已存在的数据</h3>
      *
@@ -182,6 +271,60 @@ public class RootEntityController<
         return Json.entity(source.getId(), "启用成功");
     }
 
+    /**
+     * <h3>批量删除数据</h3>
+     *
+     * @apiNote 可被子控制器类注解 {@link Extends} 继承或忽略，不建议重写，可使用前后置方法来处理业务逻辑。
+     * @see #beforeDelete(long)
+     * @see #afterDelete(long)
+     */
+    @Description("批量删除")
+    @PostMapping("deleteAll")
+    public Json deleteAll(@RequestBody QueryBatchRequest<E> queryBatchRequest) {
+        checkApiAvailableStatus(DeleteAll);
+        List<Long> idList = getBatchIdList(queryBatchRequest);
+        idList.forEach(this::beforeDelete);
+        service.deleteAll(idList);
+        TaskUtil.run(() -> idList.forEach(this::afterDelete));
+        return Json.data(idList.size(), "批量删除成功");
+    }
+
+    /**
+     * <h3>批量禁用数据</h3>
+     *
+     * @apiNote 可被子控制器类注解 {@link Extends} 继承或忽略，不建议重写，可使用前后置方法来处理业务逻辑。
+     * @see #beforeDisable(long)
+     * @see #afterDisable(long)
+     */
+    @Description("批量禁用")
+    @PostMapping("disableAll")
+    public Json disableAll(@RequestBody QueryBatchRequest<E> queryBatchRequest) {
+        checkApiAvailableStatus(DisableAll);
+        List<Long> idList = getBatchIdList(queryBatchRequest);
+        idList.forEach(this::beforeDisable);
+        service.disableAll(idList);
+        TaskUtil.run(() -> idList.forEach(this::afterDisable));
+        return Json.data(idList.size(), "批量禁用成功");
+    }
+
+    /**
+     * <h3>批量启用数据</h3>
+     *
+     * @apiNote 可被子控制器类注解 {@link Extends} 继承或忽略，不建议重写，可使用前后置方法来处理业务逻辑。
+     * @see #beforeEnable(long)
+     * @see #afterEnable(long)
+     */
+    @Description("批量启用")
+    @PostMapping("enableAll")
+    public Json enableAll(@RequestBody QueryBatchRequest<E> queryBatchRequest) {
+        checkApiAvailableStatus(EnableAll);
+        List<Long> idList = getBatchIdList(queryBatchRequest);
+        idList.forEach(this::beforeEnable);
+        service.enableAll(idList);
+        TaskUtil.run(() -> idList.forEach(this::afterEnable));
+        return Json.data(idList.size(), "批量启用成功");
+    }
+
     /**
      * <h3>不分页查询</h3>
      *
@@ -196,6 +339,7 @@ public class RootEntityController<
         checkApiAvailableStatus(GetList);
         queryListRequest = requireQueryAndFilterNonNullElse(queryListRequest, new QueryListRequest<>());
         queryListRequest = beforeGetList(queryListRequest);
+        setSelectFields(queryListRequest);
         return Json.data(afterGetList(service.getList(queryListRequest)));
     }
 
@@ -213,9 +357,28 @@ public class RootEntityController<
         checkApiAvailableStatus(GetPage);
         queryPageRequest = requireQueryAndFilterNonNullElse(queryPageRequest, new QueryPageRequest<>());
         queryPageRequest = beforeGetPage(queryPageRequest);
+        setSelectFields(queryPageRequest);
         return Json.data(afterGetPage(service.getPage(queryPageRequest)));
     }
 
+    /**
+     * <h3>游标分页查询</h3>
+     *
+     * @apiNote 可被子控制器类注解 {@link Extends} 继承或忽略，不建议重写，可使用前后置方法来处理业务逻辑。
+     * 适用于深度翻页，不返回总数，使用响应中的游标请求下一页
+     * @see #beforeGetPage(QueryPageRequest)
+     * @see #afterGetPage(QueryPageResponse)
+     */
+    @Description("游标分页查询")
+    @PostMapping("getCursorPage")
+    @Filter(WhenGetPage.class)
+    public Json getCursorPage(@RequestBody QueryCursorRequest<E> queryCursorRequest) {
+        checkApiAvailableStatus(GetCursorPage);
+        queryCursorRequest = requireQueryAndFilterNonNullElse(queryCursorRequest, new QueryCursorRequest<>());
+        queryCursorRequest = queryCursorRequest.merge(beforeGetPage(queryCursorRequest));
+        return Json.data(afterGetPage(service.getCursorPage(queryCursorRequest)));
+    }
+
     /**
      * <h3>查询分页后置方法</h3>
      *
@@ -388,6 +551,51 @@ public class RootEntityController<
         return queryListRequest;
     }
 
+    /**
+     * <h3>设置查询的字段</h3>
+     *
+     * @param queryListRequest 查询请求
+     * @apiNote 开启 {@code filterProjection} 后，请求的字段将与当前接口的 {@link Filter} 暴露的字段取交集
+     */
+    private void setSelectFields(@NotNull QueryListRequest<E> queryListRequest) {
+        Filter filter = null;
+        if (serviceConfig.isFilterProjection() && request.getAttribute(REQUEST_METHOD_KEY) instanceof Method method) {
+            filter = ReflectUtil.getAnnotation(Filter.class, method);
+        }
+        final Set<String> fields = queryListRequest.getFields();
+        final boolean isAllFields = Objects.isNull(fields) || fields.isEmpty();
+        if (Objects.isNull(filter) && isAllFields) {
+            return;
+        }
+        final Class<?> filterClass = Objects.isNull(filter) ? Void.class : filter.value();
+        Set<String> selectFields = new HashSet<>();
+        ReflectUtil.getFieldList(getEntityClass()).forEach(field -> {
+            if (!isAllFields && !fields.contains(field.getName())) {
+                return;
+            }
+            if (RootModel.isFieldExposed(getEntityClass(), field, filterClass)) {
+                selectFields.add(field.getName());
+            }
+        });
+        queryListRequest.setFields(selectFields);
+    }
+
+    /**
+     * <h3>获取批量操作的 {@code ID} 列表</h3>
+     *
+     * @param queryBatchRequest 批量操作请求
+     * @return 去重后的 {@code ID} 列表
+     */
+    private @NotNull List<Long> getBatchIdList(QueryBatchRequest<E> queryBatchRequest) {
+        PARAM_MISSING.whenNull(queryBatchRequest);
+        List<Long> idList = queryBatchRequest.getIdList();
+        if (Objects.nonNull(idList) && !idList.isEmpty()) {
+            return idList.stream().filter(Objects::nonNull).distinct().toList();
+        }
+        PARAM_MISSING.whenNull(queryBatchRequest.getFilter(), "请传入ID列表或过滤器");
+        return service.getIdList(queryBatchRequest.getFilter());
+    }
+
     /**
      * <h3>检查Api可用状态</h3>
      */
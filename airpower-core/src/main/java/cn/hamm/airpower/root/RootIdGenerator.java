@@ -0,0 +1,78 @@
+package cn.hamm.airpower.root;
+
+import cn.hamm.airpower.annotation.SnowflakeId;
+import cn.hamm.airpower.util.ReflectUtil;
+import cn.hamm.airpower.util.SnowflakeUtil;
+import org.hibernate.annotations.IdGeneratorType;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.IdentityGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+import java.util.Objects;
+
+import static cn.hamm.airpower.exception.ServiceError.SERVICE_ERROR;
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * <h1>实体 {@code ID} 生成器</h1>
+ *
+ * @author Hamm.cn
+ * @apiNote 每个实体单独创建，实体标记了 {@link SnowflakeId} 时在插入前生成雪花ID，否则沿用数据库自增
+ */
+public class RootIdGenerator extends IdentityGenerator implements BeforeExecutionGenerator {
+    /**
+     * <h3>是否使用雪花ID</h3>
+     */
+    private final boolean isSnowflake;
+
+    /**
+     * <h3>创建生成器</h3>
+     *
+     * @param generatedId 注解
+     * @param member      {@code ID} 属性
+     * @param context     创建上下文
+     */
+    public RootIdGenerator(GeneratedId generatedId, Member member, CustomIdGeneratorCreationContext context) {
+        Class<?> entityClass = context.getRootClass().getMappedClass();
+        isSnowflake = Objects.nonNull(ReflectUtil.getAnnotation(SnowflakeId.class, entityClass));
+    }
+
+    @Override
+    public boolean generatedOnExecution() {
+        return !isSnowflake;
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    @Override
+    public Object generate(
+            SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType
+    ) {
+        SERVICE_ERROR.when(SnowflakeUtil.getNodeId() < 0,
+                "实体 " + owner.getClass().getSimpleName() + " 使用了雪花ID，请开启 airpower.snowflake.enabled"
+        );
+        return SnowflakeUtil.nextId();
+    }
+
+    /**
+     * <h1>由 {@link RootIdGenerator} 生成的 {@code ID}</h1>
+     *
+     * @author Hamm.cn
+     */
+    @IdGeneratorType(RootIdGenerator.class)
+    @Target(FIELD)
+    @Retention(RUNTIME)
+    public @interface GeneratedId {
+    }
+}
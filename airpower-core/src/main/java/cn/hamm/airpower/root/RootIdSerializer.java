@@ -0,0 +1,47 @@
+package cn.hamm.airpower.root;
+
+import cn.hamm.airpower.annotation.SnowflakeId;
+import cn.hamm.airpower.util.ReflectUtil;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * <h1>实体 {@code ID} 的序列化器</h1>
+ *
+ * @author Hamm.cn
+ * @apiNote 标记了 {@link SnowflakeId} 的实体或超出 {@code JavaScript} 安全整数范围的 {@code ID} 输出为字符串，
+ * 避免前端解析时丢失精度，其余仍输出为数字；反序列化时字符串会自动转换为 {@code Long}，
+ * 引用雪花ID的其他字段也可以标记 {@code @JsonSerialize(using = RootIdSerializer.class)}
+ */
+public class RootIdSerializer extends JsonSerializer<Long> {
+    /**
+     * <h3>{@code JavaScript} 的最大安全整数</h3>
+     */
+    public static final long MAX_SAFE_INTEGER = (1L << 53) - 1;
+
+    @Override
+    public void serialize(Long value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        Object owner = generator.currentValue();
+        boolean isSnowflake = Objects.nonNull(owner) &&
+                Objects.nonNull(ReflectUtil.getAnnotation(SnowflakeId.class, owner.getClass()));
+        if (isSnowflake || !isSafeInteger(value)) {
+            generator.writeString(value.toString());
+            return;
+        }
+        generator.writeNumber(value);
+    }
+
+    /**
+     * <h3>是否在 {@code JavaScript} 的安全整数范围内</h3>
+     *
+     * @param value 值
+     * @return 是否安全
+     */
+    public static boolean isSafeInteger(long value) {
+        return value >= -MAX_SAFE_INTEGER && value <= MAX_SAFE_INTEGER;
+    }
+}
@@ -20,7 +20,6 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
-import java.util.function.BiConsumer;
 
 import static cn.hamm.airpower.config.Constant.STRING_GET;
 
@@ -71,14 +70,12 @@ public class RootModel<M extends RootModel<M>> implements IAction {
      */
     public final M filterAndDesensitize(@NotNull Class<?> filterClass, boolean isDesensitize) {
         Class<M> clazz = (Class<M>) getClass();
-        Exclude exclude = clazz.getAnnotation(Exclude.class);
-        // 类中没有标排除 则所有字段全暴露 走黑名单
-        boolean isExpose = Objects.nonNull(exclude) && Arrays.asList(exclude.filters()).contains(filterClass);
-        BiConsumer<@NotNull Field, @NotNull Class<?>> task = isExpose ? this::exposeBy : this::excludeBy;
         List<Field> allFields = ReflectUtil.getFieldList(clazz);
         allFields.forEach(field -> {
             if (!Objects.equals(Void.class, filterClass)) {
-                task.accept(field, filterClass);
+                if (!isFieldExposed(clazz, field, filterClass)) {
+                    ReflectUtil.clearFieldValue(this, field);
+                }
                 filterField(field, filterClass, isDesensitize);
             }
             if (isDesensitize) {
@@ -131,16 +128,37 @@ public class RootModel<M extends RootModel<M>> implements IAction {
     }
 
     /**
-     * <h3>通过指定的过滤器排除字段</h3>
+     * <h3>字段在指定的过滤器下是否暴露</h3>
      *
+     * @param clazz       模型类
      * @param field       字段
      * @param filterClass 过滤器
+     * @return 是否暴露
+     * @apiNote 类上标记了包含当前过滤器的 {@link Exclude} 时走白名单，否则走黑名单
      */
-    private void excludeBy(@NotNull Field field, @NotNull Class<?> filterClass) {
+    public static boolean isFieldExposed(@NotNull Class<?> clazz, @NotNull Field field, @NotNull Class<?> filterClass) {
+        if (Objects.equals(Void.class, filterClass)) {
+            return true;
+        }
+        Exclude exclude = clazz.getAnnotation(Exclude.class);
+        // 类中没有标排除 则所有字段全暴露 走黑名单
+        boolean isExpose = Objects.nonNull(exclude) && Arrays.asList(exclude.filters()).contains(filterClass);
+        return isExpose ? isExposedBy(clazz, field, filterClass) : !isExcludedBy(clazz, field, filterClass);
+    }
+
+    /**
+     * <h3>字段是否被指定的过滤器排除</h3>
+     *
+     * @param clazz       模型类
+     * @param field       字段
+     * @param filterClass 过滤器
+     * @return 是否排除
+     */
+    private static boolean isExcludedBy(@NotNull Class<?> clazz, @NotNull Field field, @NotNull Class<?> filterClass) {
         Class<?>[] excludeClasses = null;
         final String fieldGetter = STRING_GET + StringUtils.capitalize(field.getName());
         try {
-            Method getMethod = getClass().getMethod(fieldGetter);
+            Method getMethod = clazz.getMethod(fieldGetter);
             Exclude methodExclude = ReflectUtil.getAnnotation(Exclude.class, getMethod);
             if (Objects.nonNull(methodExclude)) {
                 // 属性的Getter上标记了排除
@@ -153,32 +171,31 @@ public class RootModel<M extends RootModel<M>> implements IAction {
             Exclude fieldExclude = ReflectUtil.getAnnotation(Exclude.class, field);
             if (Objects.isNull(fieldExclude)) {
                 // 属性Getter没标记 也没有属性本身标记 则暴露
-                return;
+                return false;
             }
             // 属性Getter没标记 但是属性本身标记了
             excludeClasses = fieldExclude.filters();
         }
 
-        boolean isNeedClear = true;
         if (excludeClasses.length > 0) {
-            isNeedClear = Arrays.asList(excludeClasses).contains(filterClass);
-        }
-        if (isNeedClear) {
-            ReflectUtil.clearFieldValue(this, field);
+            return Arrays.asList(excludeClasses).contains(filterClass);
         }
+        return true;
     }
 
     /**
-     * <h3>通过指定的过滤器暴露字段</h3>
+     * <h3>字段是否被指定的过滤器暴露</h3>
      *
+     * @param clazz       模型类
      * @param field       字段
      * @param filterClass 过滤器
+     * @return 是否暴露
      */
-    private void exposeBy(@NotNull Field field, @NotNull Class<?> filterClass) {
+    private static boolean isExposedBy(@NotNull Class<?> clazz, @NotNull Field field, @NotNull Class<?> filterClass) {
         final String fieldGetter = STRING_GET + StringUtils.capitalize(field.getName());
         Class<?>[] exposeClasses = null;
         try {
-            Method getMethod = getClass().getMethod(fieldGetter);
+            Method getMethod = clazz.getMethod(fieldGetter);
             Expose methodExpose = ReflectUtil.getAnnotation(Expose.class, getMethod);
             if (Objects.nonNull(methodExpose)) {
                 // 属性的Getter标记了暴露
@@ -192,20 +209,16 @@ public class RootModel<M extends RootModel<M>> implements IAction {
             Expose fieldExpose = ReflectUtil.getAnnotation(Expose.class, field);
             if (Objects.isNull(fieldExpose)) {
                 // 属性以及Getter都没有标记暴露 则排除
-                ReflectUtil.clearFieldValue(this, field);
-                return;
+                return false;
             }
             exposeClasses = fieldExpose.filters();
         }
         if (exposeClasses.length == 0) {
             // 虽然标记但未指定过滤器 所有场景都暴露
-            return;
-        }
-        boolean isExpose = Arrays.asList(exposeClasses).contains(filterClass);
-        if (!isExpose) {
-            // 当前场景不在标记的暴露场景中 则排除
-            ReflectUtil.clearFieldValue(this, field);
+            return true;
         }
+        // 当前场景不在标记的暴露场景中 则排除
+        return Arrays.asList(exposeClasses).contains(filterClass);
     }
 
     /**
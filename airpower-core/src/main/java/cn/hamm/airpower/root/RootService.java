@@ -1,27 +1,62 @@
 package cn.hamm.airpower.root;
 
+import cn.hamm.airpower.annotation.Archive;
 import cn.hamm.airpower.annotation.Desensitize;
-import cn.hamm.airpower.annotation.ExcelColumn;
+import cn.hamm.airpower.annotation.EntityCache;
 import cn.hamm.airpower.annotation.NullEnable;
-import cn.hamm.airpower.annotation.Search;
+import cn.hamm.airpower.annotation.ParallelExport;
+import cn.hamm.airpower.annotation.SnowflakeId;
+import cn.hamm.airpower.config.ExportQueueConfig;
+import cn.hamm.airpower.config.ReplicaConfig;
 import cn.hamm.airpower.config.ServiceConfig;
+import cn.hamm.airpower.datasource.ArchiveRouter;
+import cn.hamm.airpower.datasource.DataSourceResolver;
+import cn.hamm.airpower.enums.ExportCompression;
+import cn.hamm.airpower.enums.ExportFormat;
+import cn.hamm.airpower.enums.ExportPhase;
+import cn.hamm.airpower.enums.PageCountMode;
 import cn.hamm.airpower.exception.ServiceException;
+import cn.hamm.airpower.helper.ExportHelper;
+import cn.hamm.airpower.helper.ExportQueueHelper;
+import cn.hamm.airpower.helper.NearCacheHelper;
 import cn.hamm.airpower.helper.RedisHelper;
-import cn.hamm.airpower.interfaces.IDictionary;
+import cn.hamm.airpower.helper.TransactionHelper;
+import cn.hamm.airpower.interfaces.IEntityAction;
+import cn.hamm.airpower.model.Cursor;
+import cn.hamm.airpower.model.ExportJob;
+import cn.hamm.airpower.model.ExportTask;
+import cn.hamm.airpower.model.ImportResult;
 import cn.hamm.airpower.model.Json;
 import cn.hamm.airpower.model.Page;
 import cn.hamm.airpower.model.Sort;
+import cn.hamm.airpower.model.query.QueryCursorRequest;
 import cn.hamm.airpower.model.query.QueryExport;
 import cn.hamm.airpower.model.query.QueryListRequest;
 import cn.hamm.airpower.model.query.QueryPageRequest;
 import cn.hamm.airpower.model.query.QueryPageResponse;
 import cn.hamm.airpower.util.*;
-import cn.hamm.airpower.validate.dictionary.Dictionary;
 import jakarta.persistence.Column;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.*;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -29,28 +64,47 @@ import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeanWrapper;
 import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Example;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.beans.PropertyDescriptor;
-import java.io.ByteArrayInputStream;
-import java.io.File;
-import java.io.InputStream;
+import java.io.*;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static cn.hamm.airpower.config.Constant.*;
 import static cn.hamm.airpower.enums.DateTimeFormatter.FULL_DATE;
 import static cn.hamm.airpower.enums.DateTimeFormatter.FULL_TIME;
 import static cn.hamm.airpower.exception.ServiceError.*;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * <h1>服务根类</h1>
@@ -77,6 +131,38 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
      */
     public static final String STRING_ID = "id";
 
+    /**
+     * <h3>禁用字段名 {@code isDisabled}</h3>
+     */
+    public static final String STRING_IS_DISABLED = "isDisabled";
+
+    /**
+     * <h3>归档表名的中缀</h3>
+     */
+    private static final String ARCHIVE_TABLE_INFIX = "_archive_";
+
+    /**
+     * <h3>归档表名的月份格式</h3>
+     */
+    private static final String ARCHIVE_MONTH_FORMATTER = "yyyyMM";
+
+    /**
+     * <h3>归档表名列表的缓存毫秒数</h3>
+     */
+    private static final long ARCHIVE_TABLE_CACHE_MILLISECOND = 60_000;
+
+    /**
+     * <h3>实体缓存失效标记的后缀</h3>
+     */
+    private static final String ENTITY_CACHE_EVICTING_SUFFIX = "_evicting";
+
+    /**
+     * <h3>实体缓存失效标记的有效时间(秒)</h3>
+     *
+     * @apiNote 需要长于一次缓存回填从读库到写缓存的耗时
+     */
+    private static final long ENTITY_CACHE_EVICTING_SECOND = 5;
+
     /**
      * <h3>提交的数据不允许为空</h3>
      */
@@ -88,14 +174,56 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
     private static final String EXPORT_DIR_PREFIX = "export_";
 
     /**
-     * <h3>导出文件前缀</h3>
+     * <h3>导出文件的写入缓冲大小</h3>
+     */
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * <h3>导出文件片段的后缀</h3>
+     */
+    private static final String EXPORT_SEGMENT_SUFFIX = ".part";
+
+    /**
+     * <h3>导出任务前缀</h3>
+     *
+     * @apiNote 以文件Code为后缀存储 {@link ExportJob}
      */
     private static final String EXPORT_FILE_PREFIX = EXPORT_DIR_PREFIX + "file_";
 
     /**
-     * <h3>导出文件后缀</h3>
+     * <h3>导出取消标记前缀</h3>
+     */
+    private static final String EXPORT_CANCEL_PREFIX = EXPORT_DIR_PREFIX + "cancel_";
+
+    /**
+     * <h3>导出去重前缀</h3>
+     */
+    private static final String EXPORT_DEDUP_PREFIX = EXPORT_DIR_PREFIX + "dedup_";
+
+    /**
+     * <h3>导出进度的写入间隔毫秒数</h3>
+     */
+    private static final long EXPORT_PROGRESS_INTERVAL = 1000;
+
+    /**
+     * <h3>导入错误报告的表头</h3>
+     */
+    private static final String IMPORT_REPORT_HEADER = "行号,错误信息";
+
+    /**
+     * <h3>导入失败且没有错误信息时的提示</h3>
+     */
+    private static final String IMPORT_FAILED = "数据导入失败";
+
+    /**
+     * <h3>缓存实体的唯一字段列表</h3>
+     */
+    private static final ConcurrentHashMap<Class<?>, List<Field>> UNIQUE_FIELD_LIST_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * <h3>缓存实体是否有修改时的生命周期回调</h3>
      */
-    private static final String EXPORT_FILE_CSV = ".csv";
+    private static final ConcurrentHashMap<Class<?>, Boolean> UPDATE_CALLBACK_MAP = new ConcurrentHashMap<>();
 
     /**
      * <h3>数据源</h3>
@@ -109,12 +237,45 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
     @Autowired
     protected RedisHelper redisHelper;
 
+    @Autowired
+    protected TransactionHelper transactionHelper;
+
+    @Autowired
+    private NearCacheHelper nearCacheHelper;
+
+    @Autowired
+    private ReplicaConfig replicaConfig;
+
+    @Autowired
+    private ExportHelper exportHelper;
+
+    @Autowired
+    private ExportQueueConfig exportQueueConfig;
+
+    @Autowired
+    private ExportQueueHelper exportQueueHelper;
+
     @Autowired
     protected ServiceConfig serviceConfig;
 
     @Autowired
     protected HttpServletRequest request;
 
+    /**
+     * <h3>缓存的方法重写情况</h3>
+     */
+    private final ConcurrentHashMap<String, Boolean> overriddenMethodMap = new ConcurrentHashMap<>();
+
+    /**
+     * <h3>缓存的归档表名列表</h3>
+     */
+    private volatile List<String> archiveTableCache = List.of();
+
+    /**
+     * <h3>归档表名列表缓存的过期时间</h3>
+     */
+    private volatile long archiveTableCacheExpireTime = 0;
+
     /**
      * <h3>创建导出任务</h3>
      *
@@ -125,22 +286,247 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
      * @see #createExportStream(List)
      */
     public final String createExportTask(QueryListRequest<E> queryListRequest) {
-        String fileCode = RandomUtil.randomString().toLowerCase();
-        final String fileCacheKey = EXPORT_FILE_PREFIX + fileCode;
-        Object object = redisHelper.get(fileCacheKey);
-        if (Objects.nonNull(object)) {
-            return createExportTask(queryListRequest);
+        final String fileCode = createExportFileCode();
+        final String dedupKey = getExportDedupKey(queryListRequest);
+        final long startTime = System.currentTimeMillis();
+        final ExportProgress progress = new ExportProgress(new ExportJob()
+                .setFileCode(fileCode)
+                .setPhase(ExportPhase.QUEUED)
+                .setStartTime(startTime)
+                .setUpdateTime(startTime)
+                .setCreatorId(getCurrentUserId())
+                .setTenant(DataSourceResolver.getDataSourceParam()), dedupKey
+        );
+        saveExportJob(progress.job);
+        if (Objects.nonNull(dedupKey) &&
+                !redisHelper.setIfAbsent(dedupKey, fileCode, serviceConfig.getExportDedupSecond())) {
+            String existFileCode = getReusableExportFileCode(dedupKey);
+            if (Objects.nonNull(existFileCode)) {
+                redisHelper.del(EXPORT_FILE_PREFIX + fileCode);
+                return existFileCode;
+            }
+            // 已有的导出失败或已过期 由当前任务接替
+            redisHelper.set(dedupKey, fileCode, serviceConfig.getExportDedupSecond());
+        }
+        final String dataSourceParam = DataSourceResolver.getDataSourceParam();
+        if (exportQueueConfig.isEnabled()) {
+            // 排队的时间不确定 导出任务和去重Key按排队的保留时间保存 领取后再恢复
+            final int queueSecond = Math.max(exportQueueConfig.getQueueSecond(), serviceConfig.getExportDedupSecond());
+            redisHelper.setExpireSecond(EXPORT_FILE_PREFIX + fileCode, queueSecond);
+            if (Objects.nonNull(dedupKey)) {
+                redisHelper.setExpireSecond(dedupKey, queueSecond);
+            }
+            exportQueueHelper.submit(fileCode, new ExportTask()
+                    .setServiceClass(ClassUtils.getUserClass(getClass()).getName())
+                    .setTenant(dataSourceParam)
+                    .setRequest(Json.toString(
+                            requireWithFilterNonNullElse(queryListRequest, new QueryListRequest<>())
+                    ))
+                    .setDedupKey(dedupKey)
+            );
+            return fileCode;
         }
-        redisHelper.set(fileCacheKey, "");
         TaskUtil.runAsync(() -> {
-            // 查数据 写文件
-            List<E> list = exportQuery(queryListRequest);
-            String url = saveExportFile(createExportStream(list));
-            redisHelper.set(fileCacheKey, url);
+            // 异步线程中沿用发起导出时的数据源
+            DataSourceResolver.setDataSourceParam(dataSourceParam);
+            try {
+                runExportTask(progress, queryListRequest);
+            } finally {
+                DataSourceResolver.clearDataSourceParam();
+            }
         });
         return fileCode;
     }
 
+    /**
+     * <h3>执行从导出队列领取的任务</h3>
+     *
+     * @param fileCode   文件Code
+     * @param exportTask 导出任务
+     * @apiNote 由 {@link ExportQueueHelper} 在领取任务的节点上调用，调用前已切换到任务的数据源
+     */
+    public final void executeExportTask(@NotNull String fileCode, @NotNull ExportTask exportTask) {
+        Object object = redisHelper.get(EXPORT_FILE_PREFIX + fileCode);
+        final long now = System.currentTimeMillis();
+        ExportJob exportJob = Objects.isNull(object) ?
+                new ExportJob().setFileCode(fileCode).setStartTime(now) :
+                Json.parse(object.toString(), ExportJob.class);
+        // 被接管的任务从头开始导出
+        ExportProgress progress = new ExportProgress(exportJob.setUpdateTime(now), exportTask.getDedupKey());
+        if (Objects.nonNull(progress.dedupKey)) {
+            redisHelper.setExpireSecond(progress.dedupKey, serviceConfig.getExportDedupSecond());
+        }
+        //noinspection unchecked
+        QueryListRequest<E> queryListRequest = Json.parse(exportTask.getRequest(), QueryListRequest.class);
+        Object filter = Json.parse2Map(exportTask.getRequest()).get("filter");
+        queryListRequest.setFilter(
+                Objects.isNull(filter) ? null : Json.parse(Json.toString(filter), getEntityClass())
+        );
+        runExportTask(progress, queryListRequest);
+    }
+
+    /**
+     * <h3>执行导出任务</h3>
+     *
+     * @param progress         导出进度
+     * @param queryListRequest 查询请求
+     * @apiNote 任务被其他节点接管后直接退出，不再更新导出任务
+     */
+    private void runExportTask(@NotNull ExportProgress progress, QueryListRequest<E> queryListRequest) {
+        final String fileCode = progress.job.getFileCode();
+        try {
+            checkExportCanceled(progress);
+            // 查数据 写文件
+            String url;
+            if (isOverridden("createExportStream", List.class) ||
+                    isOverridden("saveExportFile", InputStream.class)) {
+                // 自定义了导出文件的生成或存储 仍一次性查出全部数据
+                updateExportPhase(progress, ExportPhase.EXPORTING);
+                List<E> exportList = exportQuery(queryListRequest);
+                progress.rowCount.set(exportList.size());
+                progress.job.setTotalCount(exportList.size());
+                url = saveExportFile(createExportStream(exportList));
+            } else {
+                url = exportToFile(queryListRequest, progress);
+            }
+            if (!exportQueueHelper.isLeaseHeld(fileCode)) {
+                log.warn("导出任务 {} 已被其他节点接管", fileCode);
+                return;
+            }
+            progress.job.setUrl(url);
+            updateExportPhase(progress, ExportPhase.FINISHED);
+        } catch (Exception exception) {
+            log.error(exception.getMessage(), exception);
+            if (!exportQueueHelper.isLeaseHeld(fileCode)) {
+                return;
+            }
+            if (isExportCanceled(fileCode)) {
+                updateExportPhase(progress, ExportPhase.CANCELED);
+            } else {
+                progress.job.setMessage(exception.getMessage());
+                updateExportPhase(progress, ExportPhase.FAILED);
+            }
+        }
+    }
+
+    /**
+     * <h3>创建未使用的文件Code</h3>
+     *
+     * @return 文件Code
+     */
+    private @NotNull String createExportFileCode() {
+        String fileCode = RandomUtil.randomString().toLowerCase();
+        if (redisHelper.hasKey(EXPORT_FILE_PREFIX + fileCode)) {
+            return createExportFileCode();
+        }
+        return fileCode;
+    }
+
+    /**
+     * <h3>获取当前请求的用户ID</h3>
+     *
+     * @return 用户ID，不在请求中、未登录或身份令牌无效时为 {@code null}
+     */
+    private @Nullable Long getCurrentUserId() {
+        final String accessToken = getAccessToken();
+        if (accessToken.isEmpty()) {
+            return null;
+        }
+        try {
+            return AccessTokenUtil.create().verify(accessToken, serviceConfig.getAccessTokenSecret()).getPayloadId();
+        } catch (Exception exception) {
+            return null;
+        }
+    }
+
+    /**
+     * <h3>获取当前请求的身份令牌</h3>
+     *
+     * @return 身份令牌，不在请求中或未携带时为空字符串
+     */
+    private @NotNull String getAccessToken() {
+        if (Objects.isNull(RequestContextHolder.getRequestAttributes())) {
+            return STRING_EMPTY;
+        }
+        return Objects.requireNonNullElse(request.getHeader(serviceConfig.getAuthorizeHeader()), STRING_EMPTY);
+    }
+
+    /**
+     * <h3>获取导出请求的去重 {@code Key}</h3>
+     *
+     * @param queryListRequest 请求查询的参数
+     * @return 去重 {@code Key}，未开启复用时返回 {@code null}
+     * @apiNote 按实体、租户、身份令牌和规范化后的过滤器、排序及查询字段计算摘要，
+     * 包含身份令牌是因为 {@link #beforeExportQuery(QueryListRequest)} 可能按当前用户限制数据范围
+     */
+    private @Nullable String getExportDedupKey(QueryListRequest<E> queryListRequest) {
+        if (serviceConfig.getExportDedupSecond() <= 0) {
+            return null;
+        }
+        final QueryListRequest<E> listRequest = requireWithFilterNonNullElse(
+                queryListRequest, new QueryListRequest<>()
+        );
+        String source = String.join(REGEX_LINE_BREAK,
+                getEntityClass().getName(),
+                Objects.requireNonNullElse(DataSourceResolver.getDataSourceParam(), STRING_EMPTY),
+                getAccessToken(),
+                Json.toString(listRequest.getFilter()),
+                createSort(listRequest.getSort()).toString(),
+                Objects.isNull(listRequest.getFields()) ?
+                        STRING_EMPTY : Json.toString(new TreeSet<>(listRequest.getFields()))
+        );
+        return EXPORT_DEDUP_PREFIX + DigestUtils.sha256Hex(source);
+    }
+
+    /**
+     * <h3>获取可复用的导出文件Code</h3>
+     *
+     * @param dedupKey 去重 {@code Key}
+     * @return 进行中或已完成的导出文件Code，不可复用时返回 {@code null}
+     */
+    private @Nullable String getReusableExportFileCode(@NotNull String dedupKey) {
+        Object fileCode = redisHelper.get(dedupKey);
+        if (Objects.isNull(fileCode)) {
+            return null;
+        }
+        Object object = redisHelper.get(EXPORT_FILE_PREFIX + fileCode);
+        if (Objects.isNull(object)) {
+            return null;
+        }
+        ExportPhase phase = Json.parse(object.toString(), ExportJob.class).getPhase();
+        if (phase == ExportPhase.FAILED || phase == ExportPhase.CANCELED) {
+            return null;
+        }
+        return fileCode.toString();
+    }
+
+    /**
+     * <h3>取消导出任务</h3>
+     *
+     * @param queryExport 查询导出模型
+     * @apiNote 导出线程在处理下一批数据前检查取消标记后停止，未完成的文件会被删除；
+     * 只有创建任务的用户在同一租户下可以取消
+     */
+    public final void cancelExport(@NotNull QueryExport queryExport) {
+        ExportJob exportJob = getExportJob(queryExport);
+        FORBIDDEN.when(!Objects.equals(exportJob.getTenant(), DataSourceResolver.getDataSourceParam()) ||
+                !Objects.equals(exportJob.getCreatorId(), getCurrentUserId()), "无权取消该导出任务");
+        FORBIDDEN.when(exportJob.getPhase().isEnded(), "导出任务已结束");
+        redisHelper.set(EXPORT_CANCEL_PREFIX + exportJob.getFileCode(), 1, DateTimeUtil.SECOND_PER_DAY);
+    }
+
+    /**
+     * <h3>查询导出任务</h3>
+     *
+     * @param queryExport 查询导出模型
+     * @return 导出任务
+     */
+    public final @NotNull ExportJob getExportJob(@NotNull QueryExport queryExport) {
+        Object object = redisHelper.get(EXPORT_FILE_PREFIX + queryExport.getFileCode());
+        DATA_NOT_FOUND.whenNull(object, "错误的FileCode");
+        return Json.parse(object.toString(), ExportJob.class);
+    }
+
     /**
      * <h3>导出查询前置方法</h3>
      *
@@ -161,39 +547,16 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
      * <ul>
      *     <li>默认导出为 {@code CSV} 表格，如需自定义导出方式或格式，可直接重写此方法</li>
      *     <li>如仅需{@code 自定义导出存储位置}，可重写 {@link #saveExportFile(InputStream)}</li>
+     *     <li>重写了以上任一方法时，导出的数据将一次性查询到内存中，否则分批流式写入文件</li>
      * </ul>
      */
     protected InputStream createExportStream(List<E> exportList) {
         // 导出到csv并存储文件
-        Class<E> entityClass = getEntityClass();
-        List<Field> fieldList = new ArrayList<>();
-        ReflectUtil.getFieldList(entityClass).forEach(field -> {
-            ExcelColumn excelColumn = ReflectUtil.getAnnotation(ExcelColumn.class, field);
-            if (Objects.isNull(excelColumn)) {
-                return;
-            }
-            fieldList.add(field);
-        });
-
-        List<String> rowList = new ArrayList<>();
+        ExportPlan exportPlan = ExportPlan.of(getEntityClass());
         // 添加表头
-        rowList.add(String.join(STRING_COMMA, fieldList.stream().map(ReflectUtil::getDescription).toList()));
-
-        String json = Json.toString(exportList);
-        List<Map<String, Object>> mapList = Json.parse2MapList(json);
-        mapList.forEach(map -> {
-            List<String> columnList = new ArrayList<>();
-            fieldList.forEach(field -> {
-                final String fieldName = field.getName();
-                Object value = map.get(fieldName);
-                value = prepareExcelColumn(fieldName, value, fieldList);
-                columnList.add(value.toString()
-                        .replaceAll(STRING_COMMA, STRING_BLANK)
-                        .replaceAll(REGEX_LINE_BREAK, STRING_BLANK));
-            });
-            rowList.add(String.join(STRING_COMMA, columnList));
-        });
-        return new ByteArrayInputStream(String.join(REGEX_LINE_BREAK, rowList).getBytes());
+        StringBuilder content = new StringBuilder(exportPlan.getHeader());
+        exportList.forEach(entity -> exportPlan.appendRow(content.append(REGEX_LINE_BREAK), entity));
+        return new ByteArrayInputStream(content.toString().getBytes(UTF_8));
     }
 
     /**
@@ -204,6 +567,359 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
      * @apiNote 可重写此方法存储至其他地方后返回可访问绝对路径
      */
     protected String saveExportFile(InputStream exportFileStream) {
+        try {
+            String exportFilePath = createExportFilePath(ExportFormat.CSV);
+            try (OutputStream outputStream = openExportStream(
+                    getExportAbsolutePath(exportFilePath), serviceConfig.getExportCompression()
+            )) {
+                exportFileStream.transferTo(outputStream);
+            }
+            return exportFilePath;
+        } catch (Exception exception) {
+            log.error(exception.getMessage(), exception);
+            throw new ServiceException(exception);
+        }
+    }
+
+    /**
+     * <h3>导出查询后置方法</h3>
+     *
+     * @param exportList 导出的数据列表
+     * @return 处理后的数据列表
+     * @apiNote 未自定义导出文件的生成和存储时，导出数据分批查询，每批数据调用一次
+     */
+    protected List<E> afterExportQuery(@NotNull List<E> exportList) {
+        return exportList;
+    }
+
+    /**
+     * <h3>流式导出到文件</h3>
+     *
+     * @param queryListRequest 查询请求
+     * @return 存储后的可访问路径
+     * @apiNote 分批查询，每条数据直接从实体格式化后写入带缓冲的文件通道，内存中最多保留一批数据；
+     * 标记了 {@link ParallelExport} 且按 {@code ID} 排序时，按 {@code ID} 范围并行写入文件片段后合并；
+     * 文件格式见 {@link ServiceConfig#getExportFormat()}
+     */
+    private @NotNull String exportToFile(QueryListRequest<E> queryListRequest, @NotNull ExportProgress progress) {
+        final QueryListRequest<E> listRequest = beforeExportQuery(
+                requireWithFilterNonNullElse(queryListRequest, new QueryListRequest<>())
+        );
+        updateExportPhase(progress, ExportPhase.COUNTING);
+        final E filter = listRequest.getFilter();
+        progress.job.setTotalCount(isFilterEmpty(filter) ? getEstimatedCount(filter) : getCachedCount(filter));
+        updateExportPhase(progress, ExportPhase.EXPORTING);
+        final ExportFormat format = serviceConfig.getExportFormat();
+        final String exportFilePath = createExportFilePath(format);
+        final Path path = getExportAbsolutePath(exportFilePath);
+        final ExportPlan exportPlan = ExportPlan.of(getEntityClass());
+        final String header = format == ExportFormat.XLSX ? exportPlan.getXlsxHeader() : exportPlan.getHeader();
+        final List<ExportPartition> partitionList = getExportPartitionList(listRequest);
+        final ExportCompression compression = serviceConfig.getExportCompression();
+        if (partitionList.isEmpty()) {
+            writeExportFile(path, header, listRequest, null, exportPlan, format, compression, progress);
+            return exportFilePath;
+        }
+        List<Path> segmentList = new ArrayList<>(partitionList.size());
+        for (int index = 0; index < partitionList.size(); index++) {
+            segmentList.add(Paths.get(path + EXPORT_SEGMENT_SUFFIX + index));
+        }
+        try {
+            List<Runnable> taskList = new ArrayList<>(partitionList.size());
+            for (int index = 0; index < partitionList.size(); index++) {
+                final Path segment = segmentList.get(index);
+                final ExportPartition partition = partitionList.get(index);
+                taskList.add(() -> writeExportFile(
+                        segment, null, listRequest, partition, exportPlan, format, ExportCompression.NONE, progress
+                ));
+            }
+            exportHelper.runAll(taskList);
+            updateExportPhase(progress, ExportPhase.MERGING);
+            mergeExportSegment(path, header, segmentList, exportPlan, format, compression);
+        } finally {
+            segmentList.forEach(this::deleteExportFile);
+        }
+        return exportFilePath;
+    }
+
+    /**
+     * <h3>将导出数据写入文件</h3>
+     *
+     * @param path        文件的绝对路径
+     * @param header      表头，为空时作为文件片段只写入行
+     * @param listRequest 查询请求
+     * @param partition   {@code ID} 范围，为空时不限制
+     * @param exportPlan  导出计划
+     * @param format      文件格式
+     * @param compression 压缩方式
+     * @param progress    导出进度
+     */
+    private void writeExportFile(
+            @NotNull Path path, @Nullable String header, @NotNull QueryListRequest<E> listRequest,
+            @Nullable ExportPartition partition, @NotNull ExportPlan exportPlan, @NotNull ExportFormat format,
+            @NotNull ExportCompression compression, @NotNull ExportProgress progress
+    ) {
+        final boolean isXlsx = format == ExportFormat.XLSX;
+        try (Writer writer = isXlsx && Objects.nonNull(header) ?
+                XlsxWriter.open(openExportStream(path, ExportCompression.NONE), exportPlan) :
+                new BufferedWriter(
+                        new OutputStreamWriter(openExportStream(path, compression), UTF_8), EXPORT_BUFFER_SIZE
+                )) {
+            final boolean[] isLineStart = {Objects.isNull(header)};
+            if (Objects.nonNull(header) && !isXlsx) {
+                // Excel 的表头由写入器在每个工作表的开头写入
+                writer.write(header);
+            }
+            final StringBuilder rows = new StringBuilder();
+            forEachBatch(serviceConfig.getBatchSize(), listRequest, partition, batch -> {
+                rows.setLength(0);
+                for (E entity : afterExportQuery(batch)) {
+                    if (isXlsx) {
+                        exportPlan.appendXlsxRow(rows, entity);
+                        continue;
+                    }
+                    if (isLineStart[0]) {
+                        isLineStart[0] = false;
+                    } else {
+                        rows.append(REGEX_LINE_BREAK);
+                    }
+                    exportPlan.appendRow(rows, entity);
+                }
+                try {
+                    writer.append(rows);
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+                reportExportProgress(progress, batch.size());
+            });
+        } catch (IOException | UncheckedIOException exception) {
+            log.error(exception.getMessage(), exception);
+            deleteExportFile(path);
+            throw new ServiceException(exception);
+        } catch (RuntimeException exception) {
+            deleteExportFile(path);
+            throw exception;
+        }
+    }
+
+    /**
+     * <h3>按顺序合并导出的文件片段</h3>
+     *
+     * @param path        文件的绝对路径
+     * @param header      表头
+     * @param segmentList 文件片段列表
+     * @param exportPlan  导出计划
+     * @param format      文件格式
+     * @param compression 压缩方式
+     * @apiNote 不压缩时片段之间直接在文件通道间传输，空片段不产生换行；
+     * {@code Excel} 的片段依次写入工作表，写满 {@link XlsxWriter#MAX_ROW_COUNT} 行时换到下一个工作表
+     */
+    private void mergeExportSegment(
+            @NotNull Path path, @NotNull String header, @NotNull List<Path> segmentList,
+            @NotNull ExportPlan exportPlan, @NotNull ExportFormat format, @NotNull ExportCompression compression
+    ) {
+        if (format == ExportFormat.XLSX) {
+            try (Writer writer = XlsxWriter.open(openExportStream(path, ExportCompression.NONE), exportPlan)) {
+                for (Path segment : segmentList) {
+                    try (Reader reader = Files.newBufferedReader(segment, UTF_8)) {
+                        reader.transferTo(writer);
+                    }
+                }
+            } catch (IOException exception) {
+                log.error(exception.getMessage(), exception);
+                deleteExportFile(path);
+                throw new ServiceException(exception);
+            }
+            return;
+        }
+        final byte[] lineBreak = REGEX_LINE_BREAK.getBytes(UTF_8);
+        if (compression != ExportCompression.NONE) {
+            try (OutputStream outputStream = openExportStream(path, compression)) {
+                outputStream.write(header.getBytes(UTF_8));
+                for (Path segment : segmentList) {
+                    if (Files.size(segment) == 0) {
+                        continue;
+                    }
+                    outputStream.write(lineBreak);
+                    Files.copy(segment, outputStream);
+                }
+            } catch (IOException exception) {
+                log.error(exception.getMessage(), exception);
+                deleteExportFile(path);
+                throw new ServiceException(exception);
+            }
+            return;
+        }
+        try (FileChannel target = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            writeFully(target, header.getBytes(UTF_8));
+            for (Path segment : segmentList) {
+                try (FileChannel source = FileChannel.open(segment, StandardOpenOption.READ)) {
+                    final long size = source.size();
+                    if (size == 0) {
+                        continue;
+                    }
+                    writeFully(target, lineBreak);
+                    long position = 0;
+                    while (position < size) {
+                        position += source.transferTo(position, size - position, target);
+                    }
+                }
+            }
+        } catch (IOException exception) {
+            log.error(exception.getMessage(), exception);
+            deleteExportFile(path);
+            throw new ServiceException(exception);
+        }
+    }
+
+    /**
+     * <h3>打开导出文件的输出流</h3>
+     *
+     * @param path        文件的绝对路径
+     * @param compression 压缩方式
+     * @return 写入时按压缩方式压缩的输出流
+     * @throws IOException 文件已存在或无法创建
+     */
+    private @NotNull OutputStream openExportStream(
+            @NotNull Path path, @NotNull ExportCompression compression
+    ) throws IOException {
+        OutputStream outputStream = new BufferedOutputStream(Channels.newOutputStream(
+                FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)
+        ), EXPORT_BUFFER_SIZE);
+        try {
+            return switch (compression) {
+                case GZIP -> new GZIPOutputStream(outputStream, EXPORT_BUFFER_SIZE);
+                case ZIP -> {
+                    ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream, UTF_8);
+                    String fileName = path.getFileName().toString();
+                    zipOutputStream.putNextEntry(new ZipEntry(
+                            fileName.substring(0, fileName.length() - compression.getSuffix().length())
+                    ));
+                    yield zipOutputStream;
+                }
+                case NONE -> outputStream;
+            };
+        } catch (IOException exception) {
+            outputStream.close();
+            throw exception;
+        }
+    }
+
+    /**
+     * <h3>将字节全部写入文件通道</h3>
+     *
+     * @param channel 文件通道
+     * @param bytes   字节
+     * @throws IOException 写入失败
+     */
+    private static void writeFully(@NotNull FileChannel channel, byte @NotNull [] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * <h3>删除导出文件</h3>
+     *
+     * @param path 文件的绝对路径
+     */
+    private void deleteExportFile(@NotNull Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException exception) {
+            log.warn("删除未完成的导出文件失败", exception);
+        }
+    }
+
+    /**
+     * <h3>获取并行导出的分区列表</h3>
+     *
+     * @param listRequest 查询请求
+     * @return 按导出顺序排列的分区列表，无需并行时返回空列表
+     * @apiNote 仅在实体标记了 {@link ParallelExport} 且只按 {@code ID} 排序时拆分，
+     * 拆分后每个分区的数据量不少于一批，保证合并后的数据顺序与单线程导出一致；
+     * 分区边界按行数从实际的 {@code ID} 中取得，{@code ID} 不连续时各分区的数据量仍然均匀
+     */
+    private @NotNull List<ExportPartition> getExportPartitionList(@NotNull QueryListRequest<E> listRequest) {
+        ParallelExport parallelExport = getEntityClass().getAnnotation(ParallelExport.class);
+        if (Objects.isNull(parallelExport)) {
+            return Collections.emptyList();
+        }
+        final int parallelism = Math.min(parallelExport.value(), exportHelper.getParallelism());
+        if (parallelism <= 1) {
+            return Collections.emptyList();
+        }
+        List<org.springframework.data.domain.Sort.Order> orderList = createSort(listRequest.getSort()).toList();
+        if (orderList.size() != 1 || !STRING_ID.equals(orderList.get(0).getProperty())) {
+            return Collections.emptyList();
+        }
+        final E filter = listRequest.getFilter();
+        List<ExportPartition> partitionList = readFromReplica(() -> routeArchive(filter, () -> {
+            CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Tuple> criteriaQuery = builder.createTupleQuery();
+            Root<E> root = criteriaQuery.from(getEntityClass());
+            jakarta.persistence.criteria.Path<Long> id = root.get(STRING_ID);
+            criteriaQuery.multiselect(builder.count(id), builder.min(id), builder.max(id));
+            createPredicate(root, criteriaQuery, builder, filter, false);
+            Tuple tuple = entityManager.createQuery(criteriaQuery).getSingleResult();
+            final long count = Objects.requireNonNullElse(tuple.get(0, Long.class), 0L);
+            if (count < (long) parallelism * Math.max(1, serviceConfig.getBatchSize())) {
+                return new ArrayList<>();
+            }
+            final long partitionSize = (count + parallelism - 1) / parallelism;
+            List<ExportPartition> list = new ArrayList<>(parallelism);
+            long idFrom = tuple.get(1, Long.class);
+            for (int index = 0; index < parallelism - 1; index++) {
+                Long idTo = getExportPartitionEnd(filter, idFrom, partitionSize);
+                if (Objects.isNull(idTo)) {
+                    break;
+                }
+                list.add(new ExportPartition(idFrom, idTo));
+                idFrom = idTo + 1;
+            }
+            list.add(new ExportPartition(idFrom, tuple.get(2, Long.class)));
+            return list;
+        }));
+        if (orderList.get(0).isDescending()) {
+            Collections.reverse(partitionList);
+        }
+        return partitionList;
+    }
+
+    /**
+     * <h3>获取分区结束的 {@code ID}</h3>
+     *
+     * @param filter        过滤器
+     * @param idFrom        分区起始 {@code ID}（包含）
+     * @param partitionSize 分区的行数
+     * @return 从起始 {@code ID} 开始第 {@code partitionSize} 行的 {@code ID}，剩余不足时返回 {@code null}
+     * @apiNote 从起始 {@code ID} 开始按主键跳过，只扫描主键索引上的一个分区
+     */
+    private @Nullable Long getExportPartitionEnd(@NotNull E filter, long idFrom, long partitionSize) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> criteriaQuery = builder.createQuery(Long.class);
+        Root<E> root = criteriaQuery.from(getEntityClass());
+        jakarta.persistence.criteria.Path<Long> id = root.get(STRING_ID);
+        List<Predicate> predicateList = getFilterPredicateList(root, builder, filter, false);
+        predicateList.add(builder.greaterThanOrEqualTo(id, idFrom));
+        criteriaQuery.select(id)
+                .where(builder.and(predicateList.toArray(new Predicate[0])))
+                .orderBy(builder.asc(id));
+        List<Long> idList = entityManager.createQuery(criteriaQuery)
+                .setFirstResult((int) Math.min(Integer.MAX_VALUE, partitionSize - 1))
+                .setMaxResults(1)
+                .getResultList();
+        return idList.isEmpty() ? null : idList.get(0);
+    }
+
+    /**
+     * <h3>创建导出文件的相对路径</h3>
+     *
+     * @param format 文件格式
+     * @return 相对于导出目录的文件路径，所在的文件夹不存在时自动创建
+     */
+    private @NotNull String createExportFilePath(@NotNull ExportFormat format) {
         // 准备导出的相对路径
         final String absolutePath = serviceConfig.getExportFilePath() + File.separator;
         SERVICE_ERROR.when(!StringUtils.hasText(absolutePath), "导出失败，未配置导出文件目录");
@@ -226,27 +942,25 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
             final String fileName = todayDir + STRING_UNDERLINE + DateTimeUtil.format(milliSecond,
                     FULL_TIME.getValue()
                             .replaceAll(STRING_COLON, STRING_EMPTY)
-            ) + STRING_UNDERLINE + RandomUtil.randomString() + EXPORT_FILE_CSV;
+            ) + STRING_UNDERLINE + RandomUtil.randomString() + format.getSuffix() +
+                    (format == ExportFormat.CSV ? serviceConfig.getExportCompression().getSuffix() : STRING_EMPTY);
 
             // 拼接最终存储路径
-            exportFilePath += fileName;
-            Path path = Paths.get(absolutePath + exportFilePath);
-            Files.write(path, exportFileStream.readAllBytes());
-            return exportFilePath;
-        } catch (Exception exception) {
+            return exportFilePath + fileName;
+        } catch (IOException exception) {
             log.error(exception.getMessage(), exception);
             throw new ServiceException(exception);
         }
     }
 
     /**
-     * <h3>导出查询后置方法</h3>
+     * <h3>获取导出文件的绝对路径</h3>
      *
-     * @param exportList 导出的数据列表
-     * @return 处理后的数据列表
+     * @param exportFilePath 相对于导出目录的文件路径
+     * @return 绝对路径
      */
-    protected List<E> afterExportQuery(@NotNull List<E> exportList) {
-        return exportList;
+    private @NotNull Path getExportAbsolutePath(@NotNull String exportFilePath) {
+        return Paths.get(serviceConfig.getExportFilePath() + File.separator + exportFilePath);
     }
 
     /**
@@ -256,11 +970,319 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
      * @return 导出文件地址
      */
     protected final String queryExport(@NotNull QueryExport queryExport) {
-        final String fileCacheKey = EXPORT_FILE_PREFIX + queryExport.getFileCode();
-        Object object = redisHelper.get(fileCacheKey);
-        DATA_NOT_FOUND.whenNull(object, "错误的FileCode");
-        DATA_NOT_FOUND.whenEmpty(object, "文件暂未准备完毕");
-        return object.toString();
+        ExportJob exportJob = getExportJob(queryExport);
+        SERVICE_ERROR.when(exportJob.getPhase() == ExportPhase.FAILED, "导出失败：" + exportJob.getMessage());
+        FORBIDDEN.when(exportJob.getPhase() == ExportPhase.CANCELED, "导出任务已取消");
+        DATA_NOT_FOUND.when(exportJob.getPhase() != ExportPhase.FINISHED, "文件暂未准备完毕");
+        return exportJob.getUrl();
+    }
+
+    /**
+     * <h3>获取导出完成的本地文件</h3>
+     *
+     * @param queryExport 查询导出模型
+     * @return 文件的绝对路径
+     * @apiNote 重写了 {@link #saveExportFile(InputStream)} 存储到其他位置时不存在本地文件
+     */
+    public final @NotNull Path getExportFile(@NotNull QueryExport queryExport) {
+        Path path = getExportAbsolutePath(queryExport(queryExport));
+        DATA_NOT_FOUND.when(!Files.isRegularFile(path), "导出的文件不存在");
+        return path;
+    }
+
+    /**
+     * <h3>保存导出任务</h3>
+     *
+     * @param exportJob 导出任务
+     */
+    private void saveExportJob(@NotNull ExportJob exportJob) {
+        redisHelper.set(EXPORT_FILE_PREFIX + exportJob.getFileCode(), Json.toString(exportJob));
+    }
+
+    /**
+     * <h3>将导出任务标记为失败</h3>
+     *
+     * @param redisHelper {@code Redis} 助手
+     * @param fileCode    文件Code
+     * @param dedupKey    去重 {@code Key}，未知时为 {@code null}
+     * @param message     失败原因
+     * @apiNote 供无法交给服务执行的排队任务使用，此时拿不到具体的服务实例；已结束的任务不再修改，
+     * 去重 {@code Key} 仍指向该任务时一并删除，让相同的导出可以重新发起
+     * @see ExportQueueHelper
+     */
+    public static void failExportJob(
+            @NotNull RedisHelper redisHelper, @NotNull String fileCode,
+            @Nullable String dedupKey, @NotNull String message
+    ) {
+        final String key = EXPORT_FILE_PREFIX + fileCode;
+        final long now = System.currentTimeMillis();
+        Object object = redisHelper.get(key);
+        ExportJob exportJob = Objects.isNull(object) ?
+                new ExportJob().setFileCode(fileCode).setStartTime(now) :
+                Json.parse(object.toString(), ExportJob.class);
+        if (Objects.nonNull(exportJob.getPhase()) && exportJob.getPhase().isEnded()) {
+            return;
+        }
+        redisHelper.set(key, Json.toString(exportJob
+                .setPhase(ExportPhase.FAILED)
+                .setMessage(message)
+                .setUpdateTime(now)
+        ));
+        if (Objects.nonNull(dedupKey) && Objects.equals(fileCode, redisHelper.get(dedupKey))) {
+            redisHelper.del(dedupKey);
+        }
+    }
+
+    /**
+     * <h3>更新导出任务的阶段</h3>
+     *
+     * @param progress 导出进度
+     * @param phase    阶段
+     */
+    private void updateExportPhase(@NotNull ExportProgress progress, @NotNull ExportPhase phase) {
+        synchronized (progress) {
+            progress.job.setPhase(phase);
+            saveExportProgress(progress);
+        }
+        if (Objects.isNull(progress.dedupKey) || !phase.isEnded()) {
+            return;
+        }
+        if (phase == ExportPhase.FINISHED) {
+            // 完成后在复用时间内继续复用
+            redisHelper.setExpireSecond(progress.dedupKey, serviceConfig.getExportDedupSecond());
+            return;
+        }
+        if (Objects.equals(progress.job.getFileCode(), redisHelper.get(progress.dedupKey))) {
+            redisHelper.del(progress.dedupKey);
+        }
+    }
+
+    /**
+     * <h3>记录导出的行数</h3>
+     *
+     * @param progress 导出进度
+     * @param count    本批处理的行数
+     * @apiNote 每个间隔最多写入一次进度并检查一次取消标记，取消后抛出异常中断导出
+     */
+    private void reportExportProgress(@NotNull ExportProgress progress, int count) {
+        progress.rowCount.addAndGet(count);
+        final long now = System.currentTimeMillis();
+        synchronized (progress) {
+            if (now - progress.job.getUpdateTime() < EXPORT_PROGRESS_INTERVAL) {
+                return;
+            }
+            checkExportCanceled(progress);
+            saveExportProgress(progress);
+        }
+    }
+
+    /**
+     * <h3>写入导出进度</h3>
+     *
+     * @param progress 导出进度
+     * @apiNote 调用方需持有 {@code progress} 的锁
+     */
+    private void saveExportProgress(@NotNull ExportProgress progress) {
+        final long now = System.currentTimeMillis();
+        final long rowCount = progress.rowCount.get();
+        final long elapsed = Math.max(1, now - progress.job.getStartTime());
+        saveExportJob(progress.job
+                .setRowCount(rowCount)
+                .setUpdateTime(now)
+                .setRowsPerSecond(rowCount * DateTimeUtil.MILLISECONDS_PER_SECOND / elapsed)
+        );
+        if (Objects.nonNull(progress.dedupKey) && !progress.job.getPhase().isEnded()) {
+            // 进行中的导出始终可复用
+            redisHelper.setExpireSecond(progress.dedupKey, serviceConfig.getExportDedupSecond());
+        }
+    }
+
+    /**
+     * <h3>导出任务是否已被取消</h3>
+     *
+     * @param fileCode 文件Code
+     * @return 是否已取消
+     */
+    private boolean isExportCanceled(@NotNull String fileCode) {
+        return redisHelper.hasKey(EXPORT_CANCEL_PREFIX + fileCode);
+    }
+
+    /**
+     * <h3>检查导出任务是否已被取消</h3>
+     *
+     * @param progress 导出进度
+     */
+    private void checkExportCanceled(@NotNull ExportProgress progress) {
+        FORBIDDEN.when(isExportCanceled(progress.job.getFileCode()), "导出任务已取消");
+        SERVICE_ERROR.when(!exportQueueHelper.isLeaseHeld(progress.job.getFileCode()), "导出任务已被其他节点接管");
+    }
+
+    /**
+     * <h3>导入文件</h3>
+     *
+     * @param inputStream 导入的 {@code CSV} 文件字节流
+     * @return 导入结果
+     * @apiNote 表头按 {@link cn.hamm.airpower.annotation.ExcelColumn} 字段的描述匹配，未匹配的列忽略，
+     * 因此错误报告修改后可直接重新导入；逐行读取，每 {@link ServiceConfig#getBatchSize()} 行并行解析和校验后批量写入，
+     * 内存中最多保留一批数据
+     * @see #beforeAdd(E)
+     * @see #afterAdd(long, E)
+     */
+    public final @NotNull ImportResult importFile(@NotNull InputStream inputStream) {
+        final ExportPlan exportPlan = ExportPlan.of(getEntityClass());
+        final int batchSize = Math.max(1, serviceConfig.getBatchSize());
+        final ImportResult importResult = new ImportResult();
+        final String reportFilePath = createExportFilePath(ExportFormat.CSV);
+        final Path reportPath = getExportAbsolutePath(reportFilePath);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(inputStream, UTF_8), EXPORT_BUFFER_SIZE
+        ); Writer reportWriter = new BufferedWriter(
+                new OutputStreamWriter(openExportStream(reportPath, serviceConfig.getExportCompression()), UTF_8),
+                EXPORT_BUFFER_SIZE
+        )) {
+            final List<String> headerCellList = ExportPlan.readRow(reader);
+            PARAM_INVALID.whenNull(headerCellList, "导入的文件为空");
+            final ExportPlan.ExportColumn[] importColumns = exportPlan.getImportColumns(headerCellList);
+            PARAM_INVALID.when(Arrays.stream(importColumns).allMatch(Objects::isNull), "导入文件的表头与导出的列不匹配");
+            StringBuilder report = new StringBuilder(IMPORT_REPORT_HEADER).append(STRING_COMMA);
+            ExportPlan.appendCells(report, headerCellList);
+            reportWriter.write(report.append(REGEX_LINE_BREAK).toString());
+
+            List<ImportRow> rowList = new ArrayList<>(batchSize);
+            long rowNumber = 1;
+            List<String> cellList;
+            do {
+                cellList = ExportPlan.readRow(reader);
+                if (Objects.nonNull(cellList)) {
+                    rowList.add(new ImportRow(++rowNumber, cellList));
+                }
+                if (rowList.size() >= batchSize || (Objects.isNull(cellList) && !rowList.isEmpty())) {
+                    importBatch(rowList, importColumns, importResult, reportWriter);
+                    rowList.clear();
+                }
+            } while (Objects.nonNull(cellList));
+        } catch (IOException exception) {
+            log.error(exception.getMessage(), exception);
+            deleteExportFile(reportPath);
+            throw new ServiceException(exception);
+        } catch (RuntimeException exception) {
+            deleteExportFile(reportPath);
+            throw exception;
+        }
+        if (importResult.getFailedCount() == 0) {
+            deleteExportFile(reportPath);
+            return importResult;
+        }
+        final long milliSecond = System.currentTimeMillis();
+        final String fileCode = createExportFileCode();
+        saveExportJob(new ExportJob()
+                .setFileCode(fileCode)
+                .setPhase(ExportPhase.FINISHED)
+                .setRowCount(importResult.getFailedCount())
+                .setTotalCount(importResult.getFailedCount())
+                .setStartTime(milliSecond)
+                .setUpdateTime(milliSecond)
+                .setUrl(reportFilePath)
+                .setCreatorId(getCurrentUserId())
+                .setTenant(DataSourceResolver.getDataSourceParam())
+        );
+        return importResult.setFileCode(fileCode);
+    }
+
+    /**
+     * <h3>导入一批数据</h3>
+     *
+     * @param rowList       行列表
+     * @param importColumns 导入列
+     * @param importResult  导入结果
+     * @param reportWriter  错误报告
+     * @throws IOException 写入错误报告失败
+     * @apiNote 按导出的并行度分片解析和校验，整批写入失败时重新解析后逐行写入以找出出错的行，
+     * 避免 {@link #beforeAdd(E)} 对同一实体执行两次
+     */
+    private void importBatch(
+            @NotNull List<ImportRow> rowList, ExportPlan.ExportColumn @NotNull [] importColumns,
+            @NotNull ImportResult importResult, @NotNull Writer reportWriter
+    ) throws IOException {
+        final int size = rowList.size();
+        final Object[] entityArray = new Object[size];
+        final String[] errorArray = new String[size];
+        final int parallelism = Math.min(exportHelper.getParallelism(), size);
+        final int sliceSize = (size + parallelism - 1) / parallelism;
+        List<Runnable> taskList = new ArrayList<>();
+        for (int start = 0; start < size; start += sliceSize) {
+            final int from = start;
+            final int to = Math.min(size, start + sliceSize);
+            taskList.add(() -> {
+                for (int index = from; index < to; index++) {
+                    try {
+                        E entity = parseImportRow(rowList.get(index), importColumns);
+                        ValidateUtil.valid(entity, IEntityAction.WhenAdd.class);
+                        entityArray[index] = entity;
+                    } catch (Exception exception) {
+                        errorArray[index] = Objects.requireNonNullElse(exception.getMessage(), IMPORT_FAILED);
+                    }
+                }
+            });
+        }
+        exportHelper.runAll(taskList);
+
+        List<E> entityList = new ArrayList<>(size);
+        List<Integer> indexList = new ArrayList<>(size);
+        for (int index = 0; index < size; index++) {
+            if (Objects.isNull(errorArray[index])) {
+                //noinspection unchecked
+                entityList.add((E) entityArray[index]);
+                indexList.add(index);
+            }
+        }
+        if (!entityList.isEmpty()) {
+            try {
+                addAll(entityList);
+            } catch (Exception batchException) {
+                log.warn("批量导入失败，逐行重试：{}", batchException.getMessage());
+                // addAll已对实体执行过beforeAdd 重新解析出未经处理的实体再逐行写入
+                for (int index = 0; index < indexList.size(); index++) {
+                    try {
+                        add(parseImportRow(rowList.get(indexList.get(index)), importColumns));
+                    } catch (Exception exception) {
+                        errorArray[indexList.get(index)] = Objects.requireNonNullElse(
+                                exception.getMessage(), IMPORT_FAILED
+                        );
+                    }
+                }
+            }
+        }
+
+        StringBuilder report = new StringBuilder();
+        for (int index = 0; index < size; index++) {
+            if (Objects.isNull(errorArray[index])) {
+                continue;
+            }
+            ImportRow row = rowList.get(index);
+            report.append(row.rowNumber).append(STRING_COMMA);
+            ExportPlan.appendCell(report, errorArray[index]);
+            report.append(STRING_COMMA);
+            ExportPlan.appendCells(report, row.cellList);
+            report.append(REGEX_LINE_BREAK);
+            importResult.setFailedCount(importResult.getFailedCount() + 1);
+        }
+        reportWriter.write(report.toString());
+        importResult.setTotalCount(importResult.getTotalCount() + size)
+                .setSuccessCount(importResult.getTotalCount() - importResult.getFailedCount());
+    }
+
+    /**
+     * <h3>将导入的一行解析为实体</h3>
+     *
+     * @param row           导入的一行
+     * @param importColumns 导入列
+     * @return 新的实体
+     */
+    private @NotNull E parseImportRow(@NotNull ImportRow row, ExportPlan.ExportColumn @NotNull [] importColumns) {
+        E entity = getEntityInstance();
+        ExportPlan.parseRow(entity, importColumns, row.cellList);
+        return entity;
     }
 
     /**
@@ -303,6 +1325,38 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
     protected void afterAdd(long id, @NotNull E source) {
     }
 
+    /**
+     * <h3>批量添加数据</h3>
+     *
+     * @param sourceList 原始实体列表
+     * @return 保存后的主键 {@code ID} 列表(与传入顺序一致)
+     * @apiNote 整批在同一个事务中写入，按 {@link ServiceConfig#getBatchSize()} 分批刷新到数据库；
+     * 使用数据库自增 {@code ID} 的实体仍逐条执行 {@code INSERT}，只有标记了 {@link SnowflakeId} 的实体才会合并为 {@code JDBC} 批处理
+     * @see #beforeAdd(E)
+     * @see #beforeSaveToDatabase(E)
+     * @see #afterAdd(long, E)
+     */
+    public final @NotNull List<Long> addAll(@NotNull List<E> sourceList) {
+        final long milliSecond = System.currentTimeMillis();
+        List<E> list = new ArrayList<>(sourceList.size());
+        sourceList.forEach(item -> {
+            E source = beforeAdd(item);
+            SERVICE_ERROR.whenNull(source, DATA_REQUIRED);
+            list.add(source.setId(null).setIsDisabled(false).setCreateTime(milliSecond));
+        });
+        if (list.isEmpty()) {
+            return new ArrayList<>();
+        }
+        checkUnique(list);
+        List<Long> idList = saveAllToDatabase(list);
+        for (int i = 0; i < idList.size(); i++) {
+            final long id = idList.get(i);
+            final E finalSource = list.get(i);
+            TaskUtil.run(() -> afterAdd(id, finalSource));
+        }
+        return idList;
+    }
+
     /**
      * <h3>修改前置方法</h3>
      *
@@ -341,6 +1395,42 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
         updateToDatabase(true, source);
     }
 
+    /**
+     * <h3>批量修改已经存在的数据</h3>
+     *
+     * @param sourceList 保存的实体列表
+     * @apiNote 整批在同一个事务中写入，按 {@link ServiceConfig#getBatchSize()} 分批读取并刷新到数据库
+     * @see #beforeUpdate(E)
+     * @see #afterUpdate(long, E)
+     * @see #afterSaved(long, E)
+     */
+    public final void updateAll(@NotNull List<E> sourceList) {
+        final long milliSecond = System.currentTimeMillis();
+        List<E> list = new ArrayList<>(sourceList.size());
+        sourceList.forEach(item -> {
+            E source = beforeUpdate(item);
+            SERVICE_ERROR.whenNull(source, DATA_REQUIRED);
+            PARAM_MISSING.whenNull(source.getId(), String.format(
+                    "修改失败，请传入%s的ID!",
+                    ReflectUtil.getDescription(getEntityClass())
+            ));
+            list.add(source.setUpdateTime(milliSecond));
+        });
+        if (list.isEmpty()) {
+            return;
+        }
+        checkUnique(list);
+        updateAllToDatabase(list);
+        evictEntityCache(list.stream().map(E::getId).toList());
+        list.forEach(source -> {
+            final long id = source.getId();
+            TaskUtil.run(
+                    () -> afterUpdate(id, source),
+                    () -> afterSaved(id, source)
+            );
+        });
+    }
+
     /**
      * <h3>修改后置方法</h3>
      *
@@ -463,6 +1553,155 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
     protected void afterDelete(long id) {
     }
 
+    /**
+     * <h3>批量禁用前置方法</h3>
+     *
+     * @param idList 主键 {@code ID} 列表
+     * @apiNote 默认逐条调用 {@link #beforeDisable(long)}
+     */
+    protected void beforeDisableAll(@NotNull List<Long> idList) {
+        idList.forEach(this::beforeDisable);
+    }
+
+    /**
+     * <h3>批量禁用指定的数据</h3>
+     *
+     * @param idList 主键 {@code ID} 列表
+     * @apiNote 按批次执行 {@code UPDATE}，不读取数据
+     * @see #beforeDisableAll(List)
+     * @see #afterDisableAll(List)
+     */
+    public final void disableAll(@NotNull List<Long> idList) {
+        beforeDisableAll(idList);
+        updateDisabledByIdList(idList, true);
+        TaskUtil.run(() -> afterDisableAll(idList));
+    }
+
+    /**
+     * <h3>批量禁用过滤器匹配的数据</h3>
+     *
+     * @param filter 全匹配过滤器
+     * @see #disableAll(List)
+     */
+    public final void disableAll(@NotNull E filter) {
+        disableAll(getIdList(filter));
+    }
+
+    /**
+     * <h3>批量禁用后置方法</h3>
+     *
+     * @param idList 主键 {@code ID} 列表
+     * @apiNote 默认逐条调用 {@link #afterDisable(long)}
+     */
+    protected void afterDisableAll(@NotNull List<Long> idList) {
+        idList.forEach(this::afterDisable);
+    }
+
+    /**
+     * <h3>批量启用前置方法</h3>
+     *
+     * @param idList 主键 {@code ID} 列表
+     * @apiNote 默认逐条调用 {@link #beforeEnable(long)}
+     */
+    protected void beforeEnableAll(@NotNull List<Long> idList) {
+        idList.forEach(this::beforeEnable);
+    }
+
+    /**
+     * <h3>批量启用指定的数据</h3>
+     *
+     * @param idList 主键 {@code ID} 列表
+     * @apiNote 按批次执行 {@code UPDATE}，不读取数据
+     * @see #beforeEnableAll(List)
+     * @see #afterEnableAll(List)
+     */
+    public final void enableAll(@NotNull List<Long> idList) {
+        beforeEnableAll(idList);
+        updateDisabledByIdList(idList, false);
+        TaskUtil.run(() -> afterEnableAll(idList));
+    }
+
+    /**
+     * <h3>批量启用过滤器匹配的数据</h3>
+     *
+     * @param filter 全匹配过滤器
+     * @see #enableAll(List)
+     */
+    public final void enableAll(@NotNull E filter) {
+        enableAll(getIdList(filter));
+    }
+
+    /**
+     * <h3>批量启用后置方法</h3>
+     *
+     * @param idList 主键 {@code ID} 列表
+     * @apiNote 默认逐条调用 {@link #afterEnable(long)}
+     */
+    protected void afterEnableAll(@NotNull List<Long> idList) {
+        idList.forEach(this::afterEnable);
+    }
+
+    /**
+     * <h3>批量删除前置方法</h3>
+     *
+     * @param idList 主键 {@code ID} 列表
+     * @apiNote 默认逐条调用 {@link #beforeDelete(long)}
+     */
+    protected void beforeDeleteAll(@NotNull List<Long> idList) {
+        idList.forEach(this::beforeDelete);
+    }
+
+    /**
+     * <h3>批量删除指定的数据</h3>
+     *
+     * @param idList 主键 {@code ID} 列表
+     * @apiNote 按批次执行 {@code DELETE}，不读取数据，也不会触发 {@code JPA} 的级联删除
+     * @see #beforeDeleteAll(List)
+     * @see #afterDeleteAll(List)
+     */
+    public final void deleteAll(@NotNull List<Long> idList) {
+        beforeDeleteAll(idList);
+        deleteByIdList(idList);
+        TaskUtil.run(() -> afterDeleteAll(idList));
+    }
+
+    /**
+     * <h3>批量删除过滤器匹配的数据</h3>
+     *
+     * @param filter 全匹配过滤器
+     * @see #deleteAll(List)
+     */
+    public final void deleteAll(@NotNull E filter) {
+        deleteAll(getIdList(filter));
+    }
+
+    /**
+     * <h3>批量删除后置方法</h3>
+     *
+     * @param idList 主键 {@code ID} 列表
+     * @apiNote 默认逐条调用 {@link #afterDelete(long)}
+     */
+    protected void afterDeleteAll(@NotNull List<Long> idList) {
+        idList.forEach(this::afterDelete);
+    }
+
+    /**
+     * <h3>查询过滤器匹配的全部 {@code ID}</h3>
+     *
+     * @param filter 全匹配过滤器
+     * @return 主键 {@code ID} 列表
+     * @apiNote 过滤器没有任何查询条件时抛出异常，避免误操作全表数据
+     */
+    public final @NotNull List<Long> getIdList(@NotNull E filter) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> criteriaQuery = builder.createQuery(Long.class);
+        Root<E> root = criteriaQuery.from(getEntityClass());
+        List<Predicate> predicateList = getFilterPredicateList(root, builder, filter, true);
+        PARAM_MISSING.when(predicateList.isEmpty(), "批量操作的过滤器不能为空");
+        criteriaQuery.select(root.get(STRING_ID)).where(builder.and(predicateList.toArray(new Predicate[0])));
+        return entityManager.createQuery(criteriaQuery).getResultList();
+    }
+
     /**
      * <h3>不分页查询前置方法</h3>
      *
@@ -470,23 +1709,115 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
      * @return 处理后的查询条件
      * @see #getList(QueryListRequest)
      */
-    protected @NotNull QueryListRequest<E> beforeGetList(@NotNull QueryListRequest<E> sourceRequestData) {
-        return sourceRequestData;
+    protected @NotNull QueryListRequest<E> beforeGetList(@NotNull QueryListRequest<E> sourceRequestData) {
+        return sourceRequestData;
+    }
+
+    /**
+     * <h3>不分页查询数据</h3>
+     *
+     * @param queryListRequest 请求的request
+     * @return List数据
+     * @see #beforeGetList(QueryListRequest)
+     * @see #afterGetList(List)
+     */
+    public final @NotNull List<E> getList(QueryListRequest<E> queryListRequest) {
+        queryListRequest = requireWithFilterNonNullElse(queryListRequest, new QueryListRequest<>());
+        queryListRequest = beforeGetList(queryListRequest);
+        List<String> selectFieldList = getSelectFieldList(queryListRequest.getFields());
+        List<E> list = selectList(
+                queryListRequest.getFilter(), false, selectFieldList, createSort(queryListRequest.getSort()), 0, 0
+        );
+        return afterGetList(list);
+    }
+
+    /**
+     * <h3>流式查询数据</h3>
+     *
+     * @param queryListRequest 查询请求
+     * @param consumer         逐条处理数据的方法
+     * @apiNote 使用只读的游标逐条读取，内存占用与数据量无关，处理后的实体会被分离，请勿在处理方法中修改实体后依赖自动保存
+     * @see #forEachBatch(int, QueryListRequest, Consumer)
+     */
+    public final void stream(@Nullable QueryListRequest<E> queryListRequest, @NotNull Consumer<E> consumer) {
+        forEachBatch(serviceConfig.getBatchSize(), queryListRequest, list -> list.forEach(consumer));
+    }
+
+    /**
+     * <h3>分批流式查询数据</h3>
+     *
+     * @param batchSize        每批的条数
+     * @param queryListRequest 查询请求
+     * @param consumer         逐批处理数据的方法
+     * @apiNote 使用只读的游标读取，每处理完一批即清空持久化上下文，内存中最多保留一批数据。
+     * {@code MySQL} 的连接参数会自动开启 {@code useCursorFetch=true}，按 {@code fetchSize} 从服务端分批获取；
+     * 始终在只读事务中读取，开启读写分离后连接来自从库，处理数据的方法中不能写入数据
+     */
+    public final void forEachBatch(
+            int batchSize, @Nullable QueryListRequest<E> queryListRequest, @NotNull Consumer<List<E>> consumer
+    ) {
+        forEachBatch(batchSize, queryListRequest, null, consumer);
     }
 
     /**
-     * <h3>不分页查询数据</h3>
+     * <h3>分批流式查询指定 {@code ID} 范围内的数据</h3>
      *
-     * @param queryListRequest 请求的request
-     * @return List数据
-     * @see #beforeGetList(QueryListRequest)
-     * @see #afterGetList(List)
+     * @param batchSize        每批的条数
+     * @param queryListRequest 查询请求
+     * @param partition        {@code ID} 范围，为空时不限制
+     * @param consumer         逐批处理数据的方法
+     * @see #forEachBatch(int, QueryListRequest, Consumer)
      */
-    public final @NotNull List<E> getList(QueryListRequest<E> queryListRequest) {
-        queryListRequest = requireWithFilterNonNullElse(queryListRequest, new QueryListRequest<>());
-        queryListRequest = beforeGetList(queryListRequest);
-        List<E> list = query(queryListRequest);
-        return afterGetList(list);
+    private void forEachBatch(
+            int batchSize, @Nullable QueryListRequest<E> queryListRequest,
+            @Nullable ExportPartition partition, @NotNull Consumer<List<E>> consumer
+    ) {
+        final QueryListRequest<E> listRequest = requireWithFilterNonNullElse(
+                queryListRequest, new QueryListRequest<>()
+        );
+        final int size = Math.max(1, batchSize);
+        final List<String> archiveTableList = getArchiveTableList(listRequest.getFilter());
+        final String archiveColumns = archiveTableList.isEmpty() ? STRING_EMPTY : getArchiveColumns();
+        TransactionHelper.Function function = () -> {
+            CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<E> criteriaQuery = builder.createQuery(getEntityClass());
+            Root<E> root = criteriaQuery.from(getEntityClass());
+            List<Predicate> predicateList = getFilterPredicateList(root, builder, listRequest.getFilter(), false);
+            if (Objects.nonNull(partition)) {
+                predicateList.add(builder.between(root.<Long>get(STRING_ID), partition.idFrom, partition.idTo));
+            }
+            criteriaQuery.where(builder.and(predicateList.toArray(new Predicate[0])));
+            criteriaQuery.orderBy(QueryUtils.toOrders(createSort(listRequest.getSort()), root, builder));
+            //noinspection unchecked
+            org.hibernate.query.Query<E> query = entityManager.createQuery(criteriaQuery)
+                    .unwrap(org.hibernate.query.Query.class);
+            query.setFetchSize(serviceConfig.getFetchSize());
+            query.setReadOnly(true);
+            try (ScrollableResults<E> results = ArchiveRouter.route(
+                    getTableName(), archiveColumns, archiveTableList, () -> query.scroll(ScrollMode.FORWARD_ONLY)
+            )) {
+                List<E> list = new ArrayList<>(size);
+                while (results.next()) {
+                    list.add(results.get());
+                    if (list.size() < size) {
+                        continue;
+                    }
+                    consumer.accept(list);
+                    list = new ArrayList<>(size);
+                    entityManager.clear();
+                }
+                if (!list.isEmpty()) {
+                    consumer.accept(list);
+                }
+                entityManager.clear();
+            }
+        };
+        if (!replicaConfig.isEnabled()) {
+            transactionHelper.read(function);
+            return;
+        }
+        // 从库上只读的事务 回调中不能写入数据
+        readFromReplica(() -> transactionHelper.read(function));
     }
 
     /**
@@ -508,7 +1839,7 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
      */
     public final @NotNull List<E> filter(@Nullable E filter, @Nullable Sort sort) {
         filter = Objects.requireNonNullElse(filter, getEntityInstance());
-        return repository.findAll(createSpecification(filter, true), createSort(sort));
+        return selectList(filter, true, null, createSort(sort), 0, 0);
     }
 
     /**
@@ -578,7 +1909,7 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
      * @see #getWithEnable(long)
      */
     public final @NotNull E get(long id) {
-        return afterGet(getById(id));
+        return afterGet(getByIdWithCache(id));
     }
 
     /**
@@ -610,6 +1941,41 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
         return afterGet(getByIdMaybeNull(id));
     }
 
+    /**
+     * <h3>根据 {@code ID} 列表批量查询实体</h3>
+     *
+     * @param idList 主键 {@code ID} 列表
+     * @return 实体列表，按传入的 {@code ID} 顺序排列，重复的 {@code ID} 只返回一次，查询不到的 {@code ID} 跳过
+     * @apiNote 开启实体缓存时先从缓存中读取，只查询缓存未命中的数据，数据库查询按 {@link ServiceConfig#getBatchSize()} 分批；
+     * 未命中的数据从主库读取后回填缓存，避免从库延迟把旧数据写回缓存
+     * @see #afterGetByIds(List)
+     */
+    public final @NotNull List<E> getByIds(@NotNull Collection<Long> idList) {
+        List<Long> distinctIdList = idList.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctIdList.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, E> entityMap = new HashMap<>(distinctIdList.size());
+        EntityCache entityCache = getEntityCache();
+        List<Long> missIdList = Objects.isNull(entityCache) ?
+                distinctIdList : getByIdsFromCache(distinctIdList, entityMap);
+        CollectionUtil.split(missIdList, serviceConfig.getBatchSize()).forEach(batch -> {
+            if (Objects.isNull(entityCache)) {
+                readFromReplica(() -> repository.findAllById(batch))
+                        .forEach(entity -> entityMap.put(entity.getId(), entity));
+                return;
+            }
+            List<E> entityList = repository.findAllById(batch);
+            entityList.forEach(entity -> entityMap.put(entity.getId(), entity));
+            saveEntityCache(entityList, entityCache);
+        });
+        List<E> list = distinctIdList.stream()
+                .map(entityMap::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(ArrayList::new));
+        return afterGetByIds(list);
+    }
+
     /**
      * <h3>详情查询后置方法</h3>
      *
@@ -620,6 +1986,18 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
         return result;
     }
 
+    /**
+     * <h3>批量详情查询后置方法</h3>
+     *
+     * @param list 查到的数据
+     * @return 处理后的数据
+     * @apiNote 默认逐条调用 {@link #afterGet(RootEntity)}，可重写为批量处理
+     */
+    protected @NotNull List<E> afterGetByIds(@NotNull List<E> list) {
+        list.replaceAll(this::afterGet);
+        return list;
+    }
+
     /**
      * <h3>分页查询数据</h3>
      *
@@ -631,14 +2009,91 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
     public final @NotNull QueryPageResponse<E> getPage(@Nullable QueryPageRequest<E> queryPageRequest) {
         queryPageRequest = requireWithFilterNonNullElse(queryPageRequest, new QueryPageRequest<>());
         queryPageRequest = beforeGetPage(queryPageRequest);
-        org.springframework.data.domain.Page<E> pageData = repository.findAll(
-                createSpecification(queryPageRequest.getFilter(), false), createPageable(queryPageRequest)
+        PageCountMode countMode = Objects.requireNonNullElse(
+                queryPageRequest.getCountMode(), serviceConfig.getPageCountMode()
         );
-        QueryPageResponse<E> queryPageResponse = getResponsePageList(pageData);
+        QueryPageResponse<E> queryPageResponse;
+        List<String> selectFieldList = getSelectFieldList(queryPageRequest.getFields());
+        if (countMode == PageCountMode.EXACT) {
+            final E filter = queryPageRequest.getFilter();
+            Pageable pageable = createPageable(queryPageRequest);
+            List<E> list = selectList(filter, false, selectFieldList, pageable.getSort(),
+                    pageable.getOffset(), pageable.getPageSize()
+            );
+            queryPageResponse = getResponsePageList(PageableExecutionUtils.getPage(
+                    list, pageable, () -> count(filter)
+            ));
+        } else {
+            queryPageResponse = getPageWithoutExactCount(queryPageRequest, countMode, selectFieldList);
+        }
         queryPageResponse.setSort(queryPageRequest.getSort());
         return afterGetPage(queryPageResponse);
     }
 
+    /**
+     * <h3>游标分页查询数据</h3>
+     *
+     * @param queryCursorRequest 请求的 {@code request} 对象
+     * @return 分页查询列表
+     * @apiNote 按 {@code (排序字段, ID)} 从游标位置继续查询，不使用 {@code OFFSET} 也不统计总数，
+     * 深度翻页时性能不会衰减，响应中的游标为 {@code null} 时表示没有更多数据
+     * @see #beforeGetPage(QueryPageRequest)
+     * @see #afterGetPage(QueryPageResponse)
+     */
+    public final @NotNull QueryPageResponse<E> getCursorPage(@Nullable QueryCursorRequest<E> queryCursorRequest) {
+        queryCursorRequest = requireWithFilterNonNullElse(queryCursorRequest, new QueryCursorRequest<>());
+        queryCursorRequest = queryCursorRequest.merge(beforeGetPage(queryCursorRequest));
+        Sort sort = Objects.requireNonNullElse(queryCursorRequest.getSort(), new Sort());
+        if (!StringUtils.hasText(sort.getField())) {
+            sort.setField(serviceConfig.getDefaultSortField());
+        }
+        boolean isAsc = Sort.ASC.equalsIgnoreCase(sort.getDirection());
+        sort.setDirection(isAsc ? Sort.ASC : Sort.DESC);
+        int pageSize = getPageSize(queryCursorRequest.getPage());
+
+        final E filter = queryCursorRequest.getFilter();
+        final Cursor cursor = queryCursorRequest.getCursor();
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<E> criteriaQuery = builder.createQuery(getEntityClass());
+        Root<E> root = criteriaQuery.from(getEntityClass());
+        List<Predicate> predicateList = new ArrayList<>();
+        Predicate predicate = createPredicate(root, criteriaQuery, builder, filter, false);
+        if (Objects.nonNull(predicate)) {
+            predicateList.add(predicate);
+        }
+        if (Objects.nonNull(cursor)) {
+            predicateList.add(createCursorPredicate(root, builder, sort.getField(), isAsc, cursor));
+        }
+        criteriaQuery.where(builder.and(predicateList.toArray(new Predicate[0])));
+        List<Order> orderList = new ArrayList<>();
+        orderList.add(isAsc ? builder.asc(root.get(sort.getField())) : builder.desc(root.get(sort.getField())));
+        if (!STRING_ID.equals(sort.getField())) {
+            orderList.add(isAsc ? builder.asc(root.get(STRING_ID)) : builder.desc(root.get(STRING_ID)));
+        }
+        criteriaQuery.orderBy(orderList);
+
+        // 多查一条用于判断是否还有下一页
+        TypedQuery<E> query = entityManager.createQuery(criteriaQuery).setMaxResults(pageSize + 1);
+        List<E> list = new ArrayList<>(readFromReplica(() -> routeArchive(filter, query::getResultList)));
+        Cursor nextCursor = null;
+        if (list.size() > pageSize) {
+            list = new ArrayList<>(list.subList(0, pageSize));
+            E last = list.get(pageSize - 1);
+            nextCursor = new Cursor()
+                    .setValue(new BeanWrapperImpl(last).getPropertyValue(sort.getField()))
+                    .setId(last.getId());
+        }
+        QueryPageResponse<E> queryPageResponse = new QueryPageResponse<E>()
+                .setList(list)
+                .setTotal(QueryPageResponse.TOTAL_UNKNOWN)
+                .setPageCount(QueryPageResponse.TOTAL_UNKNOWN)
+                .setHasNext(Objects.nonNull(nextCursor))
+                .setCursor(nextCursor)
+                .setPage(new Page().setPageSize(pageSize))
+                .setSort(sort);
+        return afterGetPage(queryPageResponse);
+    }
+
     /**
      * <h3>禁用指定的数据</h3>
      *
@@ -648,7 +2103,7 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
      * @see #afterDisable(long)
      */
     protected final void disableById(long id) {
-        E entity = get(id);
+        E entity = getById(id);
         saveToDatabase(entity.setIsDisabled(true));
     }
 
@@ -661,7 +2116,7 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
      * @see #afterEnable(long)
      */
     protected final void enableById(long id) {
-        E entity = get(id);
+        E entity = getById(id);
         saveToDatabase(entity.setIsDisabled(false));
     }
 
@@ -674,7 +2129,51 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
      * @see #afterDelete(long)
      */
     protected final void deleteById(long id) {
+        DataSourceResolver.pinPrimary();
         repository.deleteById(id);
+        evictEntityCache(List.of(id));
+    }
+
+    /**
+     * <h3>按 {@code ID} 批量修改禁用状态</h3>
+     *
+     * @param idList     主键 {@code ID} 列表
+     * @param isDisabled 是否禁用
+     */
+    private void updateDisabledByIdList(@NotNull List<Long> idList, boolean isDisabled) {
+        if (idList.isEmpty()) {
+            return;
+        }
+        final long updateTime = System.currentTimeMillis();
+        transactionHelper.run(() -> CollectionUtil.split(idList, serviceConfig.getBatchSize()).forEach(batch -> {
+            CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            CriteriaUpdate<E> criteriaUpdate = builder.createCriteriaUpdate(getEntityClass());
+            Root<E> root = criteriaUpdate.from(getEntityClass());
+            criteriaUpdate.set(root.get(STRING_IS_DISABLED), isDisabled);
+            criteriaUpdate.set(root.get(STRING_UPDATE_TIME), updateTime);
+            criteriaUpdate.where(root.get(STRING_ID).in(batch));
+            entityManager.createQuery(criteriaUpdate).executeUpdate();
+        }));
+        evictEntityCache(idList);
+    }
+
+    /**
+     * <h3>按 {@code ID} 批量删除</h3>
+     *
+     * @param idList 主键 {@code ID} 列表
+     */
+    private void deleteByIdList(@NotNull List<Long> idList) {
+        if (idList.isEmpty()) {
+            return;
+        }
+        transactionHelper.run(() -> CollectionUtil.split(idList, serviceConfig.getBatchSize()).forEach(batch -> {
+            CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            CriteriaDelete<E> criteriaDelete = builder.createCriteriaDelete(getEntityClass());
+            Root<E> root = criteriaDelete.from(getEntityClass());
+            criteriaDelete.where(root.get(STRING_ID).in(batch));
+            entityManager.createQuery(criteriaDelete).executeUpdate();
+        }));
+        evictEntityCache(idList);
     }
 
     /**
@@ -746,56 +2245,7 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
      * @return 查询结果数据列表
      */
     private @NotNull List<E> query(@NotNull QueryListRequest<E> queryListRequest) {
-        return repository.findAll(
-                createSpecification(queryListRequest.getFilter(), false), createSort(queryListRequest.getSort())
-        );
-    }
-
-    /**
-     * <h3>准备导出列</h3>
-     *
-     * @param fieldName 字段名
-     * @param value     当前值
-     * @param fieldList 字段列表
-     * @return 处理后的值
-     */
-    private @NotNull Object prepareExcelColumn(String fieldName, Object value, List<Field> fieldList) {
-        if (Objects.isNull(value) || !StringUtils.hasText(value.toString())) {
-            value = STRING_LINE;
-        }
-        try {
-            Field field = fieldList.stream()
-                    .filter(item -> Objects.equals(item.getName(), fieldName))
-                    .findFirst()
-                    .orElse(null);
-            if (Objects.isNull(field)) {
-                return value;
-            }
-            ExcelColumn excelColumn = ReflectUtil.getAnnotation(ExcelColumn.class, field);
-            if (Objects.isNull(excelColumn)) {
-                return value;
-            }
-            return switch (excelColumn.value()) {
-                case DATETIME -> REGEX_TAB + DateTimeUtil.format(Long.parseLong(value.toString()));
-                case TEXT -> REGEX_TAB + value;
-                case BOOLEAN -> (boolean) value ? STRING_YES : STRING_NO;
-                case DICTIONARY -> {
-                    Dictionary dictionary = ReflectUtil.getAnnotation(Dictionary.class, field);
-                    if (Objects.isNull(dictionary)) {
-                        yield value;
-                    } else {
-                        IDictionary dict = DictionaryUtil.getDictionary(
-                                dictionary.value(), Integer.parseInt(value.toString())
-                        );
-                        yield dict.getLabel();
-                    }
-                }
-                default -> value;
-            };
-        } catch (Exception exception) {
-            log.error(exception.getMessage(), exception);
-            return value;
-        }
+        return selectList(queryListRequest.getFilter(), false, null, createSort(queryListRequest.getSort()), 0, 0);
     }
 
     /**
@@ -857,12 +2307,202 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
      */
     private @Nullable E getByIdMaybeNull(long id) {
         try {
-            return get(id);
+            return getByIdWithCache(id);
         } catch (Exception exception) {
             return null;
         }
     }
 
+    /**
+     * <h3>根据 {@code ID} 优先从缓存查询实体</h3>
+     *
+     * @param id 主键 {@code ID}
+     * @return 实体
+     * @apiNote 未开启实体缓存时直接查询数据库，开启本地缓存时优先读取本地缓存，查询不到的数据不会被缓存，缓存不可用时回退到数据库；
+     * 缓存未命中时从主库读取后回填，避免从库延迟把旧数据写回缓存
+     * @see EntityCache
+     */
+    private @NotNull E getByIdWithCache(long id) {
+        EntityCache entityCache = getEntityCache();
+        if (Objects.isNull(entityCache)) {
+            return readFromReplica(() -> getById(id));
+        }
+        final String cacheKey = getEntityCacheKey(id);
+        E nearCache = nearCacheHelper.get(cacheKey);
+        if (Objects.nonNull(nearCache)) {
+            return nearCache;
+        }
+        try {
+            Object cache = redisHelper.get(cacheKey);
+            if (Objects.nonNull(cache)) {
+                final String json = cache.toString();
+                E entity = Json.parse(json, getEntityClass());
+                nearCacheHelper.put(cacheKey, entity, json.length());
+                return entity;
+            }
+        } catch (ServiceException exception) {
+            log.warn("读取实体缓存失败", exception);
+        }
+        E entity = getById(id);
+        saveEntityCache(List.of(entity), entityCache);
+        return entity;
+    }
+
+    /**
+     * <h3>从缓存中批量读取实体</h3>
+     *
+     * @param idList    主键 {@code ID} 列表
+     * @param entityMap 用于接收缓存命中的实体
+     * @return 缓存未命中的 {@code ID} 列表
+     */
+    private @NotNull List<Long> getByIdsFromCache(@NotNull List<Long> idList, @NotNull Map<Long, E> entityMap) {
+        List<Long> nearMissIdList = new ArrayList<>();
+        for (Long id : idList) {
+            E nearCache = nearCacheHelper.get(getEntityCacheKey(id));
+            if (Objects.nonNull(nearCache)) {
+                entityMap.put(id, nearCache);
+                continue;
+            }
+            nearMissIdList.add(id);
+        }
+        if (nearMissIdList.isEmpty()) {
+            return nearMissIdList;
+        }
+        List<String> cacheKeyList = nearMissIdList.stream().map(this::getEntityCacheKey).toList();
+        List<Object> cacheList;
+        try {
+            cacheList = redisHelper.multiGet(cacheKeyList);
+        } catch (ServiceException exception) {
+            log.warn("读取实体缓存失败", exception);
+            return nearMissIdList;
+        }
+        List<Long> missIdList = new ArrayList<>();
+        for (int index = 0; index < nearMissIdList.size(); index++) {
+            Object cache = cacheList.get(index);
+            if (Objects.isNull(cache)) {
+                missIdList.add(nearMissIdList.get(index));
+                continue;
+            }
+            final String json = cache.toString();
+            E entity = Json.parse(json, getEntityClass());
+            entityMap.put(nearMissIdList.get(index), entity);
+            nearCacheHelper.put(cacheKeyList.get(index), entity, json.length());
+        }
+        return missIdList;
+    }
+
+    /**
+     * <h3>回填实体缓存</h3>
+     *
+     * @param entityList  实体列表
+     * @param entityCache 实体缓存配置
+     * @apiNote 先写缓存再检查失效标记，写入期间有失效发生时删除刚写入的缓存，
+     * 避免回填在失效之后写回读库时的旧数据；缓存不可用时不写入本地缓存
+     * @see #deleteEntityCache(List)
+     */
+    private void saveEntityCache(@NotNull List<E> entityList, @NotNull EntityCache entityCache) {
+        if (entityList.isEmpty()) {
+            return;
+        }
+        final long expireSecond = entityCache.expireSecond() > 0 ?
+                entityCache.expireSecond() : serviceConfig.getCacheExpireSecond();
+        List<String> cacheKeyList = entityList.stream().map(entity -> getEntityCacheKey(entity.getId())).toList();
+        List<String> jsonList = entityList.stream().map(Json::toString).toList();
+        List<Object> evictingList;
+        try {
+            for (int index = 0; index < entityList.size(); index++) {
+                redisHelper.set(cacheKeyList.get(index), jsonList.get(index), expireSecond);
+            }
+            evictingList = redisHelper.multiGet(cacheKeyList.stream()
+                    .map(cacheKey -> cacheKey + ENTITY_CACHE_EVICTING_SUFFIX)
+                    .toList()
+            );
+        } catch (ServiceException exception) {
+            log.warn("写入实体缓存失败", exception);
+            return;
+        }
+        List<String> evictingKeyList = new ArrayList<>();
+        for (int index = 0; index < entityList.size(); index++) {
+            if (Objects.nonNull(evictingList.get(index))) {
+                evictingKeyList.add(cacheKeyList.get(index));
+                continue;
+            }
+            nearCacheHelper.put(cacheKeyList.get(index), entityList.get(index), jsonList.get(index).length());
+        }
+        if (evictingKeyList.isEmpty()) {
+            return;
+        }
+        try {
+            redisHelper.del(evictingKeyList);
+        } catch (ServiceException exception) {
+            log.error("删除实体缓存失败", exception);
+        }
+    }
+
+    /**
+     * <h3>使实体缓存失效</h3>
+     *
+     * @param idList 主键 {@code ID} 列表
+     * @apiNote 立即删除一次，处于事务中时在事务提交后再删除一次，避免提交前被其他请求回填旧数据
+     */
+    private void evictEntityCache(@NotNull Collection<Long> idList) {
+        if (Objects.isNull(getEntityCache()) || idList.isEmpty()) {
+            return;
+        }
+        List<String> cacheKeyList = idList.stream().map(this::getEntityCacheKey).toList();
+        deleteEntityCache(cacheKeyList);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteEntityCache(cacheKeyList);
+                }
+            });
+        }
+    }
+
+    /**
+     * <h3>删除实体缓存</h3>
+     *
+     * @param cacheKeyList 缓存的 {@code Key} 列表
+     * @apiNote 删除前先写入短时间的失效标记，标记存在期间的回填会被撤销
+     */
+    private void deleteEntityCache(@NotNull List<String> cacheKeyList) {
+        nearCacheHelper.evict(cacheKeyList);
+        try {
+            Map<String, Object> evictingMap = new HashMap<>(cacheKeyList.size());
+            cacheKeyList.forEach(cacheKey -> evictingMap.put(cacheKey + ENTITY_CACHE_EVICTING_SUFFIX, 1));
+            redisHelper.set(evictingMap, ENTITY_CACHE_EVICTING_SECOND);
+            redisHelper.del(cacheKeyList);
+        } catch (ServiceException exception) {
+            log.error("删除实体缓存失败", exception);
+        }
+    }
+
+    /**
+     * <h3>获取实体缓存配置</h3>
+     *
+     * @return 未开启缓存时返回 {@code null}
+     */
+    private @Nullable EntityCache getEntityCache() {
+        if (!serviceConfig.isCache()) {
+            return null;
+        }
+        return getEntityClass().getAnnotation(EntityCache.class);
+    }
+
+    /**
+     * <h3>获取实体缓存的 {@code Key}</h3>
+     *
+     * @param id 主键 {@code ID}
+     * @return 缓存的 {@code Key}
+     */
+    private @NotNull String getEntityCacheKey(long id) {
+        return "entity" + STRING_UNDERLINE +
+                Objects.requireNonNullElse(DataSourceResolver.getDataSourceParam(), STRING_EMPTY) + STRING_UNDERLINE +
+                getEntityClass().getSimpleName() + STRING_UNDERLINE + id;
+    }
+
     /**
      * <h3>保存到数据库</h3>
      *
@@ -883,23 +2523,204 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
     private long saveToDatabase(@NotNull E entity, boolean withNull) {
         checkUnique(entity);
         entity.setUpdateTime(System.currentTimeMillis());
-        if (Objects.nonNull(entity.getId())) {
+        if (Objects.isNull(entity.getId())) {
+            // 新增
+            return saveAndFlush(entity);
+        }
+        long id;
+        if (!withNull && isPartialUpdateAvailable(entity)) {
+            // 无需读取已存在的数据 直接按需要更新的字段生成UPDATE
+            id = partialUpdate(entity);
+        } else {
             // 修改前清掉JPA缓存，避免查询到旧数据
             entityManager.clear();
             // 有ID 走修改 且不允许修改下列字段
             E existEntity = getById(entity.getId());
             entity = withNull ? entity : getEntityForUpdate(entity, existEntity);
+            id = saveAndFlush(entity);
         }
-        if (Objects.isNull(entity.getId())) {
-            // 新增
-            return saveAndFlush(entity);
+        evictEntityCache(List.of(id));
+        return id;
+    }
+
+    /**
+     * <h3>是否可以免读取直接更新</h3>
+     *
+     * @param entity 待更新实体
+     * @return 是否可以
+     * @apiNote 以下情况需要完整的已存在实体或由 {@code JPA} 执行更新，将回退到读取后合并的方式：
+     * <ul>
+     *     <li>重写了 {@link #beforeSaveToDatabase(E)}</li>
+     *     <li>实体有 {@code @Version} 乐观锁字段，批量更新不会校验和递增版本号</li>
+     *     <li>实体有 {@code @PreUpdate}、{@code @PostUpdate} 回调或 {@code @EntityListeners}，批量更新不会触发回调</li>
+     * </ul>
+     * {@link #beforeUpdate(E)} 和 {@link #afterUpdate(long, E)} 两种方式下收到的都是提交的实体，不影响判断
+     */
+    private boolean isPartialUpdateAvailable(@NotNull E entity) {
+        if (!serviceConfig.isPartialUpdate() || isOverridden("beforeSaveToDatabase", RootEntity.class)) {
+            return false;
         }
-        // 修改前清掉JPA缓存，避免查询到旧数据
-        entityManager.clear();
-        // 有ID 走修改 且不允许修改下列字段
-        E existEntity = getById(entity.getId());
-        entity = withNull ? entity : getEntityForUpdate(entity, existEntity);
-        return saveAndFlush(entity);
+        if (getEntityType().hasVersionAttribute() || hasUpdateCallback()) {
+            return false;
+        }
+        // 集合、嵌入等无法通过单条UPDATE写入的属性有值时 回退
+        return getEntityType().getAttributes().stream()
+                .filter(attribute -> !isPartialUpdateAttribute(attribute))
+                .map(attribute -> ReflectUtil.getField(attribute.getName(), getEntityClass()))
+                .noneMatch(field ->
+                        Objects.nonNull(field) && Objects.nonNull(ReflectUtil.getFieldValue(entity, field))
+                );
+    }
+
+    /**
+     * <h3>免读取更新</h3>
+     *
+     * @param entity 待更新实体
+     * @return 实体ID
+     * @apiNote 空值忽略规则与 {@link #getEntityForUpdate(E, E)} 一致，未修改的脱敏字段不会被更新；
+     * 更新后与 {@link #updateAllToDatabase(List)} 一样清掉持久化上下文，同一事务中随后的查询不会读到旧的实体
+     */
+    private long partialUpdate(@NotNull E entity) {
+        Set<String> ignoreFieldNames = new HashSet<>(Arrays.asList(getUpdateFieldNames(entity)));
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<E> criteriaUpdate = builder.createCriteriaUpdate(getEntityClass());
+        Root<E> root = criteriaUpdate.from(getEntityClass());
+        getEntityType().getSingularAttributes().stream()
+                .filter(attribute -> !attribute.isId() && !attribute.isVersion())
+                .filter(this::isPartialUpdateAttribute)
+                .filter(attribute -> !ignoreFieldNames.contains(attribute.getName()))
+                .forEach(attribute -> {
+                    Field field = ReflectUtil.getField(attribute.getName(), getEntityClass());
+                    if (Objects.isNull(field) || isNotUpdatable(field)) {
+                        return;
+                    }
+                    Object value = ReflectUtil.getFieldValue(entity, field);
+                    if (isDesensitizedValue(field, value)) {
+                        // 提交的是脱敏后的值 不更新
+                        return;
+                    }
+                    jakarta.persistence.criteria.Path<Object> path = root.get(attribute.getName());
+                    if (Objects.isNull(value)) {
+                        criteriaUpdate.set(path, builder.nullLiteral(path.getJavaType()));
+                        return;
+                    }
+                    criteriaUpdate.set(path, value);
+                });
+        criteriaUpdate.where(builder.equal(root.get(STRING_ID), entity.getId()));
+        int[] affected = {0};
+        transactionHelper.run(() -> {
+            // 先写入未刷新的修改 避免随后清理时丢失
+            entityManager.flush();
+            affected[0] = entityManager.createQuery(criteriaUpdate).executeUpdate();
+            // 批量更新绕过了持久化上下文 清掉已加载的旧数据
+            entityManager.clear();
+        });
+        DATA_NOT_FOUND.when(affected[0] == 0, String.format(
+                "没有查询到ID为%s的%s", entity.getId(), ReflectUtil.getDescription(getEntityClass())
+        ));
+        return entity.getId();
+    }
+
+    /**
+     * <h3>实体是否有修改时的生命周期回调</h3>
+     *
+     * @return 判断结果
+     * @apiNote 结果按实体类缓存
+     */
+    private boolean hasUpdateCallback() {
+        return UPDATE_CALLBACK_MAP.computeIfAbsent(getEntityClass(), entityClass -> {
+            Class<?> clazz = entityClass;
+            while (Objects.nonNull(clazz) && !Objects.equals(Object.class, clazz)) {
+                if (clazz.isAnnotationPresent(EntityListeners.class)) {
+                    return true;
+                }
+                for (Method method : clazz.getDeclaredMethods()) {
+                    if (method.isAnnotationPresent(PreUpdate.class) || method.isAnnotationPresent(PostUpdate.class)) {
+                        return true;
+                    }
+                }
+                clazz = clazz.getSuperclass();
+            }
+            return false;
+        });
+    }
+
+    /**
+     * <h3>是否是可以通过单条UPDATE写入的属性</h3>
+     *
+     * @param attribute 属性
+     * @return 判断结果
+     */
+    private boolean isPartialUpdateAttribute(@NotNull Attribute<? super E, ?> attribute) {
+        return switch (attribute.getPersistentAttributeType()) {
+            case BASIC, MANY_TO_ONE -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * <h3>字段是否被标记为不可更新</h3>
+     *
+     * @param field 字段
+     * @return 判断结果
+     */
+    private boolean isNotUpdatable(@NotNull Field field) {
+        Column column = ReflectUtil.getAnnotation(Column.class, field);
+        if (Objects.nonNull(column) && !column.updatable()) {
+            return true;
+        }
+        JoinColumn joinColumn = ReflectUtil.getAnnotation(JoinColumn.class, field);
+        return Objects.nonNull(joinColumn) && !joinColumn.updatable();
+    }
+
+    /**
+     * <h3>是否是脱敏后提交回来的值</h3>
+     *
+     * @param field 字段
+     * @param value 值
+     * @return 判断结果
+     */
+    private boolean isDesensitizedValue(@NotNull Field field, @Nullable Object value) {
+        Desensitize desensitize = ReflectUtil.getAnnotation(Desensitize.class, field);
+        if (Objects.isNull(desensitize) || Objects.isNull(value)) {
+            return false;
+        }
+        if (desensitize.replace()) {
+            return Objects.equals(desensitize.symbol(), value.toString());
+        }
+        return value.toString().contains(desensitize.symbol());
+    }
+
+    /**
+     * <h3>获取实体的 {@code JPA} 元模型</h3>
+     *
+     * @return 元模型
+     */
+    private @NotNull EntityType<E> getEntityType() {
+        return entityManager.getMetamodel().entity(getEntityClass());
+    }
+
+    /**
+     * <h3>当前服务是否重写了指定的方法</h3>
+     *
+     * @param methodName     方法名
+     * @param parameterTypes 参数类型(泛型擦除后的类型)
+     * @return 判断结果
+     * @apiNote 结果按服务实例缓存
+     */
+    private boolean isOverridden(String methodName, Class<?>... parameterTypes) {
+        return overriddenMethodMap.computeIfAbsent(methodName, name -> {
+            Class<?> clazz = ClassUtils.getUserClass(getClass());
+            while (Objects.nonNull(clazz) && !Objects.equals(RootService.class, clazz)) {
+                try {
+                    clazz.getDeclaredMethod(name, parameterTypes);
+                    return true;
+                } catch (NoSuchMethodException exception) {
+                    clazz = clazz.getSuperclass();
+                }
+            }
+            return false;
+        });
     }
 
     /**
@@ -909,14 +2730,102 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
      * @return 实体ID
      * @apiNote 仅供 {@link #saveToDatabase(E, boolean)} 调用
      */
-    private long saveAndFlush(@NotNull E entity) {
-        E target = getEntityInstance();
-        BeanUtils.copyProperties(entity, target);
-        target = beforeSaveToDatabase(target);
-        target = repository.saveAndFlush(target);
-        // 新增完毕，清掉查询缓存，避免查询到旧数据
-        entityManager.clear();
-        return target.getId();
+    private long saveAndFlush(@NotNull E entity) {
+        E target = getEntityInstance();
+        BeanUtils.copyProperties(entity, target);
+        target = beforeSaveToDatabase(target);
+        DataSourceResolver.pinPrimary();
+        target = repository.saveAndFlush(target);
+        // 新增完毕，清掉查询缓存，避免查询到旧数据
+        entityManager.clear();
+        return target.getId();
+    }
+
+    /**
+     * <h3>批量新增到数据库</h3>
+     *
+     * @param list 待保存实体列表
+     * @return 实体ID列表
+     * @apiNote 仅供 {@link #addAll(List)} 调用；{@code Hibernate} 需要在持久化时立即取回自增的 {@code ID}，
+     * 自增 {@code ID} 的实体无法批量插入，只按批次刷新和清理持久化上下文
+     */
+    private @NotNull List<Long> saveAllToDatabase(@NotNull List<E> list) {
+        final int batchSize = serviceConfig.getBatchSize();
+        final long milliSecond = System.currentTimeMillis();
+        List<Long> idList = new ArrayList<>(list.size());
+        final boolean isJdbcBatch = Objects.nonNull(ReflectUtil.getAnnotation(SnowflakeId.class, getEntityClass()));
+        transactionHelper.run(() -> withJdbcBatchSize(isJdbcBatch ? batchSize : null, () ->
+                CollectionUtil.split(list, batchSize).forEach(batch -> {
+                    List<E> savedList = new ArrayList<>(batch.size());
+                    batch.forEach(entity -> {
+                        E target = getEntityInstance();
+                        BeanUtils.copyProperties(entity.setUpdateTime(milliSecond), target);
+                        target = beforeSaveToDatabase(target);
+                        entityManager.persist(target);
+                        savedList.add(target);
+                    });
+                    // 每批仅刷新一次 随后清掉持久化上下文 避免内存持续增长
+                    entityManager.flush();
+                    savedList.forEach(saved -> idList.add(saved.getId()));
+                    entityManager.clear();
+                })
+        ));
+        return idList;
+    }
+
+    /**
+     * <h3>批量修改到数据库</h3>
+     *
+     * @param list 待修改实体列表
+     * @apiNote 仅供 {@link #updateAll(List)} 调用
+     */
+    private void updateAllToDatabase(@NotNull List<E> list) {
+        final int batchSize = serviceConfig.getBatchSize();
+        transactionHelper.run(() -> {
+            // 修改前先刷新已有的修改再清掉JPA缓存，避免查询到旧数据
+            entityManager.flush();
+            entityManager.clear();
+            withJdbcBatchSize(batchSize, () -> CollectionUtil.split(list, batchSize).forEach(batch -> {
+                Map<Long, E> existMap = new HashMap<>(batch.size());
+                repository.findAllById(batch.stream().map(RootEntity::getId).toList())
+                        .forEach(exist -> existMap.put(exist.getId(), exist));
+                batch.forEach(source -> {
+                    E exist = existMap.get(source.getId());
+                    DATA_NOT_FOUND.whenNull(exist, String.format(
+                            "没有查询到ID为%s的%s", source.getId(), ReflectUtil.getDescription(getEntityClass())
+                    ));
+                    E target = beforeSaveToDatabase(getEntityForUpdate(source, exist));
+                    if (target != exist) {
+                        entityManager.merge(target);
+                    }
+                });
+                // 已加载的实体处于托管状态 刷新时由脏检查批量生成UPDATE
+                entityManager.flush();
+                entityManager.clear();
+            }));
+        });
+    }
+
+    /**
+     * <h3>以指定的 {@code JDBC} 批处理大小执行</h3>
+     *
+     * @param batchSize 批处理大小，为 {@code null} 时不修改
+     * @param runnable  执行的操作
+     * @apiNote 会话的批处理大小在执行完毕后恢复为原来的值，避免影响同一会话中的其他操作
+     */
+    private void withJdbcBatchSize(@Nullable Integer batchSize, @NotNull Runnable runnable) {
+        if (Objects.isNull(batchSize)) {
+            runnable.run();
+            return;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        Integer lastBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(batchSize);
+        try {
+            runnable.run();
+        } finally {
+            session.setJdbcBatchSize(lastBatchSize);
+        }
     }
 
     /**
@@ -972,40 +2881,112 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
      * @param entity 实体
      */
     private void checkUnique(@NotNull E entity) {
-        List<Field> fields = ReflectUtil.getFieldList(getEntityClass());
-        fields.forEach(field -> {
-            Column annotation = ReflectUtil.getAnnotation(Column.class, field);
-            if (Objects.isNull(annotation)) {
-                // 不是数据库列 不校验
-                return;
-            }
-            if (!annotation.unique()) {
-                // 没有标唯一 不校验
-                return;
-            }
-            Object fieldValue = ReflectUtil.getFieldValue(entity, field);
-            if (Objects.isNull(fieldValue)) {
-                // 没有值 不校验
-                return;
-            }
-            E search = getEntityInstance();
-            ReflectUtil.setFieldValue(search, field, fieldValue);
-            Example<E> example = Example.of(search);
-            Optional<E> exist = repository.findOne(example);
-            if (exist.isEmpty()) {
-                // 没查到 不校验
-                return;
-            }
-            if (Objects.nonNull(entity.getId()) && Objects.equals(exist.get().getId(), entity.getId())) {
-                // 修改自己 不校验
+        checkUnique(List.of(entity));
+    }
+
+    /**
+     * <h3>批量判断是否唯一</h3>
+     *
+     * @param list 实体列表
+     * @apiNote 所有唯一字段的所有值合并为一次 {@code OR} 查询，同时校验批次内是否重复；
+     * 已存在的数据在同一批修改中会改为其他值时不视为重复，数据库的唯一索引仍按语句顺序逐条校验
+     */
+    private void checkUnique(@NotNull List<E> list) {
+        List<Field> uniqueFieldList = getUniqueFieldList();
+        if (uniqueFieldList.isEmpty()) {
+            // 没有唯一字段 不校验
+            return;
+        }
+        // 同一批修改的数据 ID -> 实体
+        Map<Long, E> updatingMap = new HashMap<>(list.size());
+        list.stream().filter(entity -> Objects.nonNull(entity.getId()))
+                .forEach(entity -> updatingMap.put(entity.getId(), entity));
+        CollectionUtil.split(list, serviceConfig.getBatchSize()).forEach(batch -> {
+            // 每个唯一字段的 值 -> 实体
+            Map<Field, Map<Object, E>> fieldValueMap = new HashMap<>(uniqueFieldList.size());
+            uniqueFieldList.forEach(field -> {
+                Map<Object, E> valueMap = new HashMap<>(batch.size());
+                batch.forEach(entity -> {
+                    Object fieldValue = ReflectUtil.getFieldValue(entity, field);
+                    if (Objects.isNull(fieldValue)) {
+                        // 没有值 不校验
+                        return;
+                    }
+                    FORBIDDEN_EXIST.whenNotNull(valueMap.put(getUniqueKey(fieldValue), entity), String.format(
+                            "%s (%s) 重复提交，请修改后重新提交！", ReflectUtil.getDescription(field), fieldValue
+                    ));
+                });
+                if (!valueMap.isEmpty()) {
+                    fieldValueMap.put(field, valueMap);
+                }
+            });
+            if (fieldValueMap.isEmpty()) {
                 return;
             }
-            FORBIDDEN_EXIST.show(String.format("%s (%s) 已经存在，请修改后重新提交！",
-                    ReflectUtil.getDescription(field), fieldValue)
-            );
+            List<E> existList = repository.findAll((Specification<E>) (root, query, builder) -> builder.or(
+                    fieldValueMap.entrySet().stream()
+                            .map(entry -> root.get(entry.getKey().getName()).in(
+                                    entry.getValue().values().stream()
+                                            .map(entity -> ReflectUtil.getFieldValue(entity, entry.getKey()))
+                                            .toList()
+                            ))
+                            .toArray(Predicate[]::new)
+            ));
+            existList.forEach(exist -> fieldValueMap.forEach((field, valueMap) -> {
+                Object existValue = ReflectUtil.getFieldValue(exist, field);
+                if (Objects.isNull(existValue)) {
+                    return;
+                }
+                E entity = valueMap.get(getUniqueKey(existValue));
+                if (Objects.isNull(entity) || Objects.equals(exist.getId(), entity.getId())) {
+                    // 不是这个字段撞了 或修改自己 不校验
+                    return;
+                }
+                E updating = updatingMap.get(exist.getId());
+                Object updatingValue = Objects.isNull(updating) ? null : ReflectUtil.getFieldValue(updating, field);
+                if (Objects.nonNull(updatingValue) &&
+                        !Objects.equals(getUniqueKey(updatingValue), getUniqueKey(existValue))) {
+                    // 已存在的数据在本批中会改为其他值 例如互换
+                    return;
+                }
+                FORBIDDEN_EXIST.show(String.format("%s (%s) 已经存在，请修改后重新提交！",
+                        ReflectUtil.getDescription(field), existValue)
+                );
+            }));
         });
     }
 
+    /**
+     * <h3>获取实体的唯一字段列表</h3>
+     *
+     * @return 标记了 {@code @Column(unique = true)} 的字段列表
+     * @apiNote 每个实体类仅解析一次
+     */
+    private @NotNull List<Field> getUniqueFieldList() {
+        return UNIQUE_FIELD_LIST_MAP.computeIfAbsent(getEntityClass(), clazz ->
+                ReflectUtil.getFieldList(clazz).stream()
+                        .filter(field -> {
+                            Column column = ReflectUtil.getAnnotation(Column.class, field);
+                            return Objects.nonNull(column) && column.unique();
+                        })
+                        .toList()
+        );
+    }
+
+    /**
+     * <h3>获取唯一值的比较键</h3>
+     *
+     * @param value 字段值
+     * @return 比较键
+     * @apiNote 字符串忽略大小写，与数据库默认的排序规则保持一致
+     */
+    private @NotNull Object getUniqueKey(@NotNull Object value) {
+        if (value instanceof String string) {
+            return string.toLowerCase();
+        }
+        return value;
+    }
+
     /**
      * <h3>获取一个空实体对象</h3>
      *
@@ -1059,6 +3040,533 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
         return list.toArray(new String[0]);
     }
 
+    /**
+     * <h3>不执行精确统计的分页查询</h3>
+     *
+     * @param queryPageRequest 查询请求
+     * @param countMode        总数统计方式
+     * @return 输出分页对象
+     * @apiNote 多查询一条数据判断是否有下一页，总数按统计方式获取
+     */
+    private @NotNull QueryPageResponse<E> getPageWithoutExactCount(
+            @NotNull QueryPageRequest<E> queryPageRequest, @NotNull PageCountMode countMode,
+            @Nullable List<String> selectFieldList
+    ) {
+        Pageable pageable = createPageable(queryPageRequest);
+        final int pageSize = pageable.getPageSize();
+        final E filter = queryPageRequest.getFilter();
+        List<E> list = selectList(
+                filter, false, selectFieldList, pageable.getSort(), pageable.getOffset(), pageSize + 1
+        );
+        boolean hasNext = list.size() > pageSize;
+        if (hasNext) {
+            list = new ArrayList<>(list.subList(0, pageSize));
+        }
+
+        long total = switch (countMode) {
+            case CACHED -> getCachedCount(filter);
+            case ESTIMATE -> isFilterEmpty(filter) ? getEstimatedCount(filter) : getCachedCount(filter);
+            default -> QueryPageResponse.TOTAL_UNKNOWN;
+        };
+        boolean isTotalExact = false;
+        if (total != QueryPageResponse.TOTAL_UNKNOWN) {
+            // 缓存或估算的总数可能已经过期，使用本页实际查到的数据修正
+            long fetched = pageable.getOffset() + list.size();
+            if (!hasNext && !list.isEmpty()) {
+                // 最后一页 总数是确定的
+                total = fetched;
+                isTotalExact = true;
+            } else if (list.isEmpty()) {
+                // 超出最后一页 总数不会超过偏移量
+                total = Math.min(total, pageable.getOffset());
+            } else {
+                total = Math.max(total, fetched + 1);
+            }
+        }
+        return new QueryPageResponse<E>()
+                .setList(list)
+                .setTotal(total)
+                .setTotalExact(isTotalExact)
+                .setPageCount(total < 0 ? QueryPageResponse.TOTAL_UNKNOWN : (total + pageSize - 1) / pageSize)
+                .setHasNext(hasNext)
+                .setPage(new Page()
+                        .setPageSize(pageSize)
+                        .setPageNum(pageable.getPageNumber() + 1)
+                );
+    }
+
+    /**
+     * <h3>获取需要查询的字段列表</h3>
+     *
+     * @param fields 请求的字段
+     * @return 字段列表，为 {@code null} 时查询全部字段
+     * @apiNote 仅支持实体的基础字段，包含关联字段时查询全部字段，不存在的字段将被忽略
+     */
+    private @Nullable List<String> getSelectFieldList(@Nullable Set<String> fields) {
+        if (Objects.isNull(fields) || fields.isEmpty()) {
+            return null;
+        }
+        List<String> selectFieldList = new ArrayList<>();
+        selectFieldList.add(STRING_ID);
+        for (Attribute<? super E, ?> attribute : getEntityType().getAttributes()) {
+            if (!fields.contains(attribute.getName()) || STRING_ID.equals(attribute.getName())) {
+                continue;
+            }
+            if (attribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC) {
+                return null;
+            }
+            selectFieldList.add(attribute.getName());
+        }
+        return selectFieldList;
+    }
+
+    /**
+     * <h3>按过滤器查询数据列表</h3>
+     *
+     * @param filter          过滤器
+     * @param isEqual         是否强匹配
+     * @param selectFieldList 查询的字段列表，为 {@code null} 时查询全部字段
+     * @param sort            排序
+     * @param offset          偏移量
+     * @param limit           查询条数，为 {@code 0} 时不限制
+     * @return 数据列表，只查询部分字段时返回的实体仅填充了这些字段
+     */
+    private @NotNull List<E> selectList(
+            @NotNull E filter, boolean isEqual, @Nullable List<String> selectFieldList,
+            @NotNull org.springframework.data.domain.Sort sort, long offset, int limit
+    ) {
+        TypedQuery<?> typedQuery;
+        ShapeQuery shapeQuery = createShapeQuery(filter, isEqual, sort);
+        if (Objects.nonNull(shapeQuery)) {
+            String jpql = shapeQuery.getSelectJpql(selectFieldList, sort);
+            typedQuery = Objects.isNull(selectFieldList) ?
+                    shapeQuery.bind(entityManager.createQuery(jpql, getEntityClass())) :
+                    shapeQuery.bind(entityManager.createQuery(jpql, Tuple.class));
+        } else {
+            CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<?> criteriaQuery = Objects.isNull(selectFieldList) ?
+                    builder.createQuery(getEntityClass()) : builder.createTupleQuery();
+            Root<E> root = criteriaQuery.from(getEntityClass());
+            if (Objects.nonNull(selectFieldList)) {
+                List<Selection<?>> selectionList = new ArrayList<>(selectFieldList.size());
+                selectFieldList.forEach(fieldName -> selectionList.add(root.get(fieldName).alias(fieldName)));
+                criteriaQuery.multiselect(selectionList);
+            }
+            List<Predicate> predicateList = getFilterPredicateList(root, builder, filter, isEqual);
+            criteriaQuery.where(builder.and(predicateList.toArray(new Predicate[0])));
+            criteriaQuery.orderBy(QueryUtils.toOrders(sort, root, builder));
+            typedQuery = entityManager.createQuery(criteriaQuery);
+        }
+        typedQuery.setFirstResult(Math.toIntExact(offset));
+        if (limit > 0) {
+            typedQuery.setMaxResults(limit);
+        }
+        final TypedQuery<?> lastQuery = typedQuery;
+        List<?> resultList = readFromReplica(() -> routeArchive(filter, lastQuery::getResultList));
+        if (Objects.isNull(selectFieldList)) {
+            //noinspection unchecked
+            return new ArrayList<>((List<E>) resultList);
+        }
+        List<Field> fieldList = selectFieldList.stream()
+                .map(fieldName -> ReflectUtil.getField(fieldName, getEntityClass()))
+                .toList();
+        List<E> list = new ArrayList<>(resultList.size());
+        resultList.forEach(result -> {
+            Tuple tuple = (Tuple) result;
+            E entity = getEntityInstance();
+            for (int index = 0; index < fieldList.size(); index++) {
+                ReflectUtil.setFieldValue(entity, fieldList.get(index), tuple.get(index));
+            }
+            list.add(entity);
+        });
+        return list;
+    }
+
+    /**
+     * <h3>在从库上执行查询</h3>
+     *
+     * @param supplier 查询方法
+     * @param <T>      返回类型
+     * @return 查询结果
+     * @apiNote 事务外的持久化上下文会一直持有获取到的连接，因此在只读事务中查询，由事务结束时释放从库的连接，
+     * 避免后续的写入复用从库的连接；已在事务中时直接走主库
+     * @see DataSourceResolver#readFromReplica(Supplier)
+     */
+    private <T> T readFromReplica(@NotNull Supplier<T> supplier) {
+        if (!replicaConfig.isEnabled() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return supplier.get();
+        }
+        return DataSourceResolver.readFromReplica(() -> transactionHelper.query(supplier));
+    }
+
+    /**
+     * <h3>在从库上执行查询</h3>
+     *
+     * @param runnable 查询方法
+     * @see #readFromReplica(Supplier)
+     */
+    private void readFromReplica(@NotNull Runnable runnable) {
+        readFromReplica(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * <h3>统计过滤器匹配的数据条数</h3>
+     *
+     * @param filter 过滤器
+     * @return 条数
+     */
+    private long count(@NotNull E filter) {
+        ShapeQuery shapeQuery = createShapeQuery(filter, false, org.springframework.data.domain.Sort.unsorted());
+        if (Objects.isNull(shapeQuery)) {
+            return readFromReplica(() -> routeArchive(filter,
+                    () -> repository.count(createSpecification(filter, false))
+            ));
+        }
+        TypedQuery<Long> query = shapeQuery.bind(entityManager.createQuery(shapeQuery.getCountJpql(), Long.class));
+        return readFromReplica(() -> routeArchive(filter, query::getSingleResult));
+    }
+
+    /**
+     * <h3>过滤器是否没有任何查询条件</h3>
+     *
+     * @param filter 过滤器
+     * @return 是否没有查询条件
+     */
+    private boolean isFilterEmpty(@NotNull E filter) {
+        ShapeQuery shapeQuery = createShapeQuery(filter, false, org.springframework.data.domain.Sort.unsorted());
+        if (Objects.nonNull(shapeQuery)) {
+            return shapeQuery.isEmpty();
+        }
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> criteriaQuery = builder.createQuery(Long.class);
+        return getFilterPredicateList(criteriaQuery.from(getEntityClass()), builder, filter, false).isEmpty();
+    }
+
+    /**
+     * <h3>按过滤器的结构创建查询语句</h3>
+     *
+     * @param filter  过滤器
+     * @param isEqual 是否强匹配
+     * @param sort    排序
+     * @return 查询语句，重写了 {@link #addSearchPredicate(Root, CriteriaBuilder, RootEntity)} 或排序字段不是实体的单值属性时返回
+     * {@code null}
+     */
+    private @Nullable ShapeQuery createShapeQuery(
+            @NotNull E filter, boolean isEqual, @NotNull org.springframework.data.domain.Sort sort
+    ) {
+        if (!serviceConfig.isShapeQuery() ||
+                isOverridden("addSearchPredicate", Root.class, CriteriaBuilder.class, RootEntity.class)) {
+            return null;
+        }
+        Set<String> attributeNameSet = sort.isUnsorted() ? Set.of() : getEntityType().getSingularAttributes().stream()
+                .map(Attribute::getName)
+                .collect(Collectors.toSet());
+        if (!ShapeQuery.isSortSupported(sort, attributeNameSet)) {
+            // 排序字段不是实体的属性 交由Criteria查询校验
+            return null;
+        }
+        E lastFilter = isOverridden("beforeCreatePredicate", RootEntity.class) ?
+                beforeCreatePredicate(filter.copy()) : filter;
+        ShapeQuery shapeQuery = new ShapeQuery(getEntityType().getName());
+        shapeQuery.addSearch(ShapeQuery.ROOT_ALIAS, lastFilter, isEqual);
+        shapeQuery.addCondition(ShapeQuery.ROOT_ALIAS, STRING_CREATE_TIME, ">=", filter.getCreateTimeFrom());
+        shapeQuery.addCondition(ShapeQuery.ROOT_ALIAS, STRING_CREATE_TIME, "<", filter.getCreateTimeTo());
+        shapeQuery.addCondition(ShapeQuery.ROOT_ALIAS, STRING_UPDATE_TIME, ">=", filter.getUpdateTimeFrom());
+        shapeQuery.addCondition(ShapeQuery.ROOT_ALIAS, STRING_UPDATE_TIME, "<", filter.getUpdateTimeTo());
+        return shapeQuery;
+    }
+
+    /**
+     * <h3>获取缓存的总数</h3>
+     *
+     * @param filter 过滤器
+     * @return 总数
+     * @apiNote 按实体、租户和查询条件缓存，缓存不可用时直接统计；
+     * 重写了 {@link #addSearchPredicate(Root, CriteriaBuilder, RootEntity)} 或 {@link #beforeCreatePredicate(RootEntity)}
+     * 时查询条件可能依赖当前用户，同时按身份令牌缓存
+     */
+    private long getCachedCount(@NotNull E filter) {
+        String source = Json.toString(filter);
+        if (isOverridden("addSearchPredicate", Root.class, CriteriaBuilder.class, RootEntity.class) ||
+                isOverridden("beforeCreatePredicate", RootEntity.class)) {
+            source += REGEX_LINE_BREAK + getAccessToken();
+        }
+        String cacheKey = "page_count_" + getEntityClass().getSimpleName() + STRING_UNDERLINE +
+                Objects.requireNonNullElse(DataSourceResolver.getDataSourceParam(), STRING_EMPTY) + STRING_UNDERLINE +
+                DigestUtils.sha1Hex(source);
+        try {
+            Object cache = redisHelper.get(cacheKey);
+            if (Objects.nonNull(cache)) {
+                return Long.parseLong(cache.toString());
+            }
+        } catch (ServiceException | NumberFormatException exception) {
+            log.warn("读取分页总数缓存失败", exception);
+        }
+        long count = count(filter);
+        try {
+            redisHelper.set(cacheKey, count, serviceConfig.getPageCountCacheSecond());
+        } catch (ServiceException exception) {
+            log.warn("写入分页总数缓存失败", exception);
+        }
+        return count;
+    }
+
+    /**
+     * <h3>获取估算的总数</h3>
+     *
+     * @param filter 过滤器
+     * @return 总数
+     * @apiNote 读取 {@code information_schema} 中的表统计信息，读取失败时使用缓存的总数；
+     * {@code InnoDB} 的 {@code TABLE_ROWS} 是抽样估算值，可能偏大或偏小，不能用于判断是否有下一页
+     */
+    private long getEstimatedCount(@NotNull E filter) {
+        try {
+            Object result = entityManager.createNativeQuery(
+                            "SELECT TABLE_ROWS FROM information_schema.TABLES " +
+                                    "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?1"
+                    )
+                    .setParameter(1, getTableName())
+                    .getSingleResult();
+            if (result instanceof Number number) {
+                return number.longValue();
+            }
+        } catch (PersistenceException exception) {
+            log.warn("读取表统计信息失败", exception);
+        }
+        return getCachedCount(filter);
+    }
+
+    /**
+     * <h3>归档创建时间早于保留天数的数据</h3>
+     *
+     * @return 归档的数据条数
+     * @apiNote 按 {@link ServiceConfig#getBatchSize()} 分批，每批在一个事务中按创建时间的月份复制到
+     * {@code 表名_archive_yyyyMM} 归档表后从实体表删除，归档表不存在时按实体表结构创建，并清除已归档数据的实体缓存和本地缓存；
+     * 实体需标记 {@link Archive}，可在项目的定时任务中调用
+     */
+    public final long archive() {
+        Archive archive = getEntityClass().getAnnotation(Archive.class);
+        SERVICE_ERROR.whenNull(archive, ReflectUtil.getDescription(getEntityClass()) + "未开启数据归档");
+        final long cutoff = getArchiveCutoff(archive);
+        final String tableName = getTableName();
+        final String idColumn = getColumnName(STRING_ID);
+        final String createTimeColumn = getColumnName(STRING_CREATE_TIME);
+        final String columns = getArchiveColumns();
+        final int batchSize = serviceConfig.getBatchSize();
+        long total = 0;
+        while (true) {
+            //noinspection unchecked
+            List<Object[]> rowList = entityManager.createNativeQuery(String.format(
+                            "SELECT `%s`, `%s` FROM `%s` WHERE `%s` < ?1 ORDER BY `%s` LIMIT ?2",
+                            idColumn, createTimeColumn, tableName, createTimeColumn, idColumn
+                    ))
+                    .setParameter(1, cutoff)
+                    .setParameter(2, batchSize)
+                    .getResultList();
+            if (rowList.isEmpty()) {
+                break;
+            }
+            Map<String, List<Long>> archiveIdMap = new TreeMap<>();
+            rowList.forEach(row -> archiveIdMap.computeIfAbsent(
+                    getArchiveTableName(tableName, ((Number) row[1]).longValue()), key -> new ArrayList<>()
+            ).add(((Number) row[0]).longValue()));
+            // 建表会隐式提交事务 需在移动数据的事务外执行
+            archiveIdMap.keySet().forEach(archiveTableName -> transactionHelper.run(() ->
+                    entityManager.createNativeQuery(String.format(
+                            "CREATE TABLE IF NOT EXISTS `%s` LIKE `%s`", archiveTableName, tableName
+                    )).executeUpdate()
+            ));
+            if (!archiveTableCache.containsAll(archiveIdMap.keySet())) {
+                archiveTableCacheExpireTime = 0;
+            }
+            List<Long> archivedIdList = archiveIdMap.values().stream().flatMap(Collection::stream).toList();
+            transactionHelper.run(() -> {
+                archiveIdMap.forEach((archiveTableName, idList) -> {
+                    entityManager.createNativeQuery(String.format(
+                                    "INSERT INTO `%s` (%s) SELECT %s FROM `%s` WHERE `%s` IN (:idList)",
+                                    archiveTableName, columns, columns, tableName, idColumn
+                            ))
+                            .setParameter("idList", idList)
+                            .executeUpdate();
+                    entityManager.createNativeQuery(String.format(
+                                    "DELETE FROM `%s` WHERE `%s` IN (:idList)", tableName, idColumn
+                            ))
+                            .setParameter("idList", idList)
+                            .executeUpdate();
+                });
+                // 事务中先删除一次 提交后再删除一次
+                evictEntityCache(archivedIdList);
+            });
+            total += archivedIdList.size();
+            if (rowList.size() < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * <h3>按过滤器的创建时间范围合并查询归档表</h3>
+     *
+     * @param filter   过滤器
+     * @param supplier 查询方法
+     * @param <T>      返回类型
+     * @return 查询结果
+     * @see ArchiveRouter
+     */
+    private <T> T routeArchive(@NotNull E filter, @NotNull Supplier<T> supplier) {
+        List<String> archiveTableList = getArchiveTableList(filter);
+        if (archiveTableList.isEmpty()) {
+            return supplier.get();
+        }
+        return ArchiveRouter.route(getTableName(), getArchiveColumns(), archiveTableList, supplier);
+    }
+
+    /**
+     * <h3>获取创建时间范围涉及的归档表</h3>
+     *
+     * @param filter 过滤器
+     * @return 已存在的归档表名列表，实体未开启归档、查询范围都在保留天数内，
+     * 或未限定创建时间起点且不在 {@link ArchiveRouter#includeArchive(Supplier)} 中时为空
+     */
+    private @NotNull List<String> getArchiveTableList(@NotNull E filter) {
+        Archive archive = getEntityClass().getAnnotation(Archive.class);
+        if (Objects.isNull(archive)) {
+            return List.of();
+        }
+        final long cutoff = getArchiveCutoff(archive);
+        final Long from = filter.getCreateTimeFrom();
+        if (Objects.isNull(from) ? !ArchiveRouter.isArchiveIncluded() : from >= cutoff) {
+            return List.of();
+        }
+        final Long to = filter.getCreateTimeTo();
+        final String fromMonth = Objects.isNull(from) ?
+                STRING_EMPTY : DateTimeUtil.format(from, ARCHIVE_MONTH_FORMATTER);
+        final String toMonth = DateTimeUtil.format(
+                Objects.isNull(to) ? cutoff : Math.min(to - 1, cutoff), ARCHIVE_MONTH_FORMATTER
+        );
+        final String prefix = getTableName() + ARCHIVE_TABLE_INFIX;
+        return getArchiveTableCache(prefix).stream()
+                .filter(tableName -> {
+                    String month = tableName.substring(prefix.length());
+                    return month.compareTo(fromMonth) >= 0 && month.compareTo(toMonth) <= 0;
+                })
+                .toList();
+    }
+
+    /**
+     * <h3>获取已存在的归档表</h3>
+     *
+     * @param prefix 归档表名的前缀
+     * @return 归档表名列表
+     * @apiNote 缓存 {@link #ARCHIVE_TABLE_CACHE_MILLISECOND} 毫秒，当前节点归档时新建了表会立即刷新
+     */
+    private @NotNull List<String> getArchiveTableCache(@NotNull String prefix) {
+        if (archiveTableCacheExpireTime > System.currentTimeMillis()) {
+            return archiveTableCache;
+        }
+        //noinspection unchecked
+        List<Object> tableNameList = readFromReplica(() -> entityManager.createNativeQuery(
+                        "SELECT TABLE_NAME FROM information_schema.TABLES " +
+                                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME LIKE ?1"
+                )
+                .setParameter(1, prefix.replace(STRING_UNDERLINE, "\\" + STRING_UNDERLINE) + "%")
+                .getResultList());
+        archiveTableCache = tableNameList.stream().map(Object::toString).sorted().toList();
+        archiveTableCacheExpireTime = System.currentTimeMillis() + ARCHIVE_TABLE_CACHE_MILLISECOND;
+        return archiveTableCache;
+    }
+
+    /**
+     * <h3>获取归档时复制和合并查询的列</h3>
+     *
+     * @return 实体表的全部列，以逗号分隔
+     * @apiNote 按实体的元数据列出，归档表结构与实体表不一致时只要包含这些列即可
+     */
+    private @NotNull String getArchiveColumns() {
+        EntityPersister entityPersister = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(getEntityClass());
+        SERVICE_ERROR.when(!(entityPersister instanceof AbstractEntityPersister),
+                ReflectUtil.getDescription(getEntityClass()) + "不支持数据归档"
+        );
+        AbstractEntityPersister abstractEntityPersister = (AbstractEntityPersister) entityPersister;
+        Set<String> columnSet = new LinkedHashSet<>(Arrays.asList(abstractEntityPersister.getIdentifierColumnNames()));
+        String[] propertyNames = abstractEntityPersister.getPropertyNames();
+        for (int index = 0; index < propertyNames.length; index++) {
+            // 集合属性没有列 公式属性的列为空
+            Arrays.stream(abstractEntityPersister.getPropertyColumnNames(index))
+                    .filter(Objects::nonNull)
+                    .forEach(columnSet::add);
+        }
+        return columnSet.stream()
+                .map(column -> "`" + column.replace("`", STRING_EMPTY).replace("\"", STRING_EMPTY) + "`")
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * <h3>获取归档的截止时间</h3>
+     *
+     * @param archive 归档配置
+     * @return 创建时间早于该时间的数据可归档
+     */
+    private long getArchiveCutoff(@NotNull Archive archive) {
+        return System.currentTimeMillis() -
+                (long) archive.retainDay() * DateTimeUtil.SECOND_PER_DAY * DateTimeUtil.MILLISECONDS_PER_SECOND;
+    }
+
+    /**
+     * <h3>获取数据所在的归档表名</h3>
+     *
+     * @param tableName  实体表名
+     * @param createTime 创建时间
+     * @return 归档表名
+     */
+    private @NotNull String getArchiveTableName(@NotNull String tableName, long createTime) {
+        return tableName + ARCHIVE_TABLE_INFIX + DateTimeUtil.format(createTime, ARCHIVE_MONTH_FORMATTER);
+    }
+
+    /**
+     * <h3>获取字段对应的列名</h3>
+     *
+     * @param fieldName 字段名
+     * @return 列名
+     */
+    private @NotNull String getColumnName(@NotNull String fieldName) {
+        EntityPersister entityPersister = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(getEntityClass());
+        if (!(entityPersister instanceof AbstractEntityPersister abstractEntityPersister)) {
+            return fieldName;
+        }
+        String[] columnNames = STRING_ID.equals(fieldName) ?
+                abstractEntityPersister.getIdentifierColumnNames() :
+                abstractEntityPersister.getPropertyColumnNames(fieldName);
+        return columnNames[0].replace("`", STRING_EMPTY).replace("\"", STRING_EMPTY);
+    }
+
+    /**
+     * <h3>获取实体对应的表名</h3>
+     *
+     * @return 表名
+     */
+    private @NotNull String getTableName() {
+        EntityPersister entityPersister = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(getEntityClass());
+        String tableName = entityPersister instanceof AbstractEntityPersister abstractEntityPersister ?
+                abstractEntityPersister.getTableName() : getEntityClass().getSimpleName();
+        // 去除库名和引号
+        tableName = tableName.substring(tableName.lastIndexOf('.') + 1);
+        return tableName.replace("`", STRING_EMPTY).replace("\"", STRING_EMPTY);
+    }
+
     /**
      * <h3>获取响应的分页数据</h3>
      *
@@ -1070,8 +3578,9 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
     ) {
         return new QueryPageResponse<E>()
                 .setList(data.getContent())
-                .setTotal(Math.toIntExact(data.getTotalElements()))
+                .setTotal(data.getTotalElements())
                 .setPageCount(data.getTotalPages())
+                .setHasNext(data.hasNext())
                 .setPage(new Page()
                         .setPageSize(data.getPageable().getPageSize())
                         .setPageNum(data.getPageable().getPageNumber() + 1)
@@ -1101,6 +3610,65 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
         );
     }
 
+    /**
+     * <h3>获取分页条数</h3>
+     *
+     * @param page 分页对象
+     * @return 分页条数
+     */
+    private int getPageSize(@Nullable Page page) {
+        if (Objects.isNull(page) || Objects.isNull(page.getPageSize())) {
+            return Math.max(1, serviceConfig.getDefaultPageSize());
+        }
+        return Math.max(1, page.getPageSize());
+    }
+
+    /**
+     * <h3>创建游标位置的查询条件</h3>
+     *
+     * @param root      {@code root}
+     * @param builder   {@code builder}
+     * @param sortField 排序字段
+     * @param isAsc     是否正序
+     * @param cursor    游标
+     * @return 查询条件 {@code sort > value OR (sort = value AND id > lastId)}
+     * @apiNote 按 {@code MySQL} 的空值顺序处理排序字段为空的数据：正序时空值在最前，倒序时空值在最后
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private @NotNull Predicate createCursorPredicate(
+            @NotNull Root<E> root, @NotNull CriteriaBuilder builder,
+            @NotNull String sortField, boolean isAsc, @NotNull Cursor cursor
+    ) {
+        PARAM_MISSING.whenNull(cursor.getId(), "游标缺少主键ID");
+        jakarta.persistence.criteria.Path<Long> idPath = root.get(STRING_ID);
+        Predicate idPredicate = isAsc ?
+                builder.greaterThan(idPath, cursor.getId()) :
+                builder.lessThan(idPath, cursor.getId());
+        if (STRING_ID.equals(sortField)) {
+            return idPredicate;
+        }
+        jakarta.persistence.criteria.Path<Comparable> sortPath = root.get(sortField);
+        if (Objects.isNull(cursor.getValue())) {
+            Predicate nullPredicate = builder.and(builder.isNull(sortPath), idPredicate);
+            // 正序时空值之后还有全部非空的数据 倒序时空值已在最后
+            return isAsc ? builder.or(nullPredicate, builder.isNotNull(sortPath)) : nullPredicate;
+        }
+        Comparable value;
+        try {
+            value = (Comparable) DefaultConversionService.getSharedInstance().convert(
+                    cursor.getValue(), sortPath.getJavaType()
+            );
+        } catch (ConversionException exception) {
+            throw new ServiceException(PARAM_INVALID, "游标的排序字段值无效");
+        }
+        Predicate equalPredicate = builder.and(builder.equal(sortPath, value), idPredicate);
+        if (isAsc) {
+            return builder.or(builder.greaterThan(sortPath, value), equalPredicate);
+        }
+        // 倒序时空值排在最后 需要一并包含
+        return builder.or(builder.lessThan(sortPath, value), builder.isNull(sortPath), equalPredicate);
+    }
+
     /**
      * <h3>创建{@code Pageable}</h3>
      *
@@ -1130,36 +3698,31 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
     private @NotNull List<jakarta.persistence.criteria.Predicate> getPredicateList(
             @NotNull From<?, ?> root, @NotNull CriteriaBuilder builder, @NotNull Object search, boolean isEqual
     ) {
-        List<Field> fields = ReflectUtil.getFieldList(search.getClass());
         List<Predicate> predicateList = new ArrayList<>();
-        fields.forEach(field -> {
-            Object fieldValue = ReflectUtil.getFieldValue(search, field);
+        // 查询计划中只有配置了查询注解的字段
+        SearchPlan.of(search.getClass()).getSearchFieldList().forEach(searchField -> {
+            Object fieldValue = searchField.getValue(search);
             if (Objects.isNull(fieldValue) || !StringUtils.hasText(fieldValue.toString())) {
                 // 没有传入查询值 空字符串 跳过
                 return;
             }
-            Search searchMode = ReflectUtil.getAnnotation(Search.class, field);
-            if (Objects.isNull(searchMode)) {
-                // 没有配置查询注解 跳过
-                return;
-            }
-            switch (searchMode.value()) {
+            switch (searchField.getMode()) {
                 case JOIN:
-                    Join<?, ?> payload = root.join(field.getName(), JoinType.INNER);
+                    Join<?, ?> payload = root.join(searchField.getName(), JoinType.INNER);
                     predicateList.addAll(getPredicateList(payload, builder, fieldValue, isEqual));
                     break;
                 case LIKE:
                     if (!isEqual) {
                         // 如果是模糊匹配
                         predicateList.add(
-                                builder.like(root.get(field.getName()), fieldValue + STRING_PERCENT)
+                                builder.like(root.get(searchField.getName()), fieldValue + STRING_PERCENT)
                         );
                         break;
                     }
                     // 如果不是模糊匹配，走到default分支
                 default:
                     // 强匹配
-                    Predicate predicate = builder.equal(root.get(field.getName()), fieldValue);
+                    Predicate predicate = builder.equal(root.get(searchField.getName()), fieldValue);
                     predicateList.add(predicate);
             }
         });
@@ -1221,15 +3784,33 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
         if (Objects.isNull(criteriaQuery)) {
             return null;
         }
-        E lastFilter = beforeCreatePredicate(filter.copy());
-        List<Predicate> predicateList = getPredicateList(root, builder, lastFilter, isEqual);
-        predicateList.addAll(addSearchPredicate(root, builder, filter));
-        addCreateAndUpdateTimePredicate(root, builder, filter, predicateList);
+        List<Predicate> predicateList = getFilterPredicateList(root, builder, filter, isEqual);
         Predicate[] predicates = new Predicate[predicateList.size()];
         criteriaQuery.where(builder.and(predicateList.toArray(predicates)));
         return criteriaQuery.getRestriction();
     }
 
+    /**
+     * <h3>获取过滤器的全部查询条件</h3>
+     *
+     * @param root    {@code root}
+     * @param builder {@code builder}
+     * @param filter  过滤器实体
+     * @param isEqual 是否强匹配
+     * @return 查询条件列表
+     */
+    private @NotNull List<Predicate> getFilterPredicateList(
+            @NotNull Root<E> root, @NotNull CriteriaBuilder builder, @NotNull E filter, boolean isEqual
+    ) {
+        // 未重写前置方法时无需复制过滤器
+        E lastFilter = isOverridden("beforeCreatePredicate", RootEntity.class) ?
+                beforeCreatePredicate(filter.copy()) : filter;
+        List<Predicate> predicateList = getPredicateList(root, builder, lastFilter, isEqual);
+        predicateList.addAll(addSearchPredicate(root, builder, filter));
+        addCreateAndUpdateTimePredicate(root, builder, filter, predicateList);
+        return predicateList;
+    }
+
     /**
      * <h3>在创建查询条件前调用</h3>
      *
@@ -1240,4 +3821,71 @@ public class RootService<E extends RootEntity<E>, R extends RootRepository<E>> {
     protected E beforeCreatePredicate(@NotNull E filter) {
         return filter;
     }
+
+    /**
+     * <h3>并行导出的分区</h3>
+     */
+    @AllArgsConstructor
+    private static class ExportPartition {
+        /**
+         * <h3>起始 {@code ID}（包含）</h3>
+         */
+        private final long idFrom;
+
+        /**
+         * <h3>结束 {@code ID}（包含）</h3>
+         */
+        private final long idTo;
+    }
+
+    /**
+     * <h3>导入的一行</h3>
+     */
+    @AllArgsConstructor
+    private static class ImportRow {
+        /**
+         * <h3>行号</h3>
+         *
+         * @apiNote 表头为第 {@code 1} 行
+         */
+        private final long rowNumber;
+
+        /**
+         * <h3>单元格列表</h3>
+         */
+        private final List<String> cellList;
+    }
+
+    /**
+     * <h3>导出进度</h3>
+     */
+    private static class ExportProgress {
+        /**
+         * <h3>导出任务</h3>
+         */
+        private final ExportJob job;
+
+        /**
+         * <h3>已处理的行数</h3>
+         *
+         * @apiNote 并行导出的分区共同累加
+         */
+        private final AtomicLong rowCount = new AtomicLong(0);
+
+        /**
+         * <h3>去重 {@code Key}</h3>
+         */
+        private final String dedupKey;
+
+        /**
+         * <h3>创建导出进度</h3>
+         *
+         * @param job      导出任务
+         * @param dedupKey 去重 {@code Key}，未开启复用时为 {@code null}
+         */
+        private ExportProgress(ExportJob job, @Nullable String dedupKey) {
+            this.job = job;
+            this.dedupKey = dedupKey;
+        }
+    }
 }
@@ -0,0 +1,122 @@
+package cn.hamm.airpower.root;
+
+import cn.hamm.airpower.annotation.Search;
+import cn.hamm.airpower.exception.ServiceException;
+import cn.hamm.airpower.util.ReflectUtil;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <h1>查询计划</h1>
+ *
+ * @author Hamm.cn
+ * @apiNote 按类缓存标记了 {@link Search} 的字段、搜索方式和字段的读取方法，构建查询条件时只读取这些字段
+ */
+final class SearchPlan {
+    /**
+     * <h3>查询计划缓存</h3>
+     */
+    private static final ConcurrentHashMap<Class<?>, SearchPlan> PLAN_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * <h3>搜索字段列表</h3>
+     */
+    @Getter
+    private final List<SearchField> searchFieldList;
+
+    /**
+     * <h3>创建查询计划</h3>
+     *
+     * @param clazz 类
+     */
+    private SearchPlan(@NotNull Class<?> clazz) {
+        List<SearchField> list = new ArrayList<>();
+        ReflectUtil.getFieldList(clazz).forEach(field -> {
+            Search search = ReflectUtil.getAnnotation(Search.class, field);
+            if (Objects.nonNull(search)) {
+                list.add(new SearchField(field, search.value()));
+            }
+        });
+        searchFieldList = Collections.unmodifiableList(list);
+    }
+
+    /**
+     * <h3>获取类的查询计划</h3>
+     *
+     * @param clazz 类
+     * @return 查询计划
+     */
+    static @NotNull SearchPlan of(@NotNull Class<?> clazz) {
+        return PLAN_MAP.computeIfAbsent(clazz, SearchPlan::new);
+    }
+
+    /**
+     * <h1>搜索字段</h1>
+     */
+    @Getter
+    static final class SearchField {
+        /**
+         * <h3>读取方法的类型</h3>
+         */
+        private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+        /**
+         * <h3>字段名</h3>
+         */
+        private final String name;
+
+        /**
+         * <h3>搜索方式</h3>
+         */
+        private final Search.Mode mode;
+
+        /**
+         * <h3>字段的读取方法</h3>
+         */
+        @Getter(AccessLevel.NONE)
+        private final MethodHandle getter;
+
+        /**
+         * <h3>创建搜索字段</h3>
+         *
+         * @param field 字段
+         * @param mode  搜索方式
+         */
+        private SearchField(@NotNull Field field, @NotNull Search.Mode mode) {
+            this.name = field.getName();
+            this.mode = mode;
+            try {
+                field.setAccessible(true);
+                this.getter = MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE);
+            } catch (Exception exception) {
+                throw new ServiceException(exception);
+            }
+        }
+
+        /**
+         * <h3>读取字段的值</h3>
+         *
+         * @param target 对象
+         * @return 值
+         */
+        @Nullable Object getValue(@NotNull Object target) {
+            try {
+                return (Object) getter.invokeExact(target);
+            } catch (Throwable throwable) {
+                throw new ServiceException(throwable.getMessage());
+            }
+        }
+    }
+}
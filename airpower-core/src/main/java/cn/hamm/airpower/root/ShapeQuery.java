@@ -0,0 +1,202 @@
+package cn.hamm.airpower.root;
+
+import jakarta.persistence.TypedQuery;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static cn.hamm.airpower.config.Constant.STRING_PERCENT;
+
+/**
+ * <h1>按过滤器结构生成的查询语句</h1>
+ *
+ * @author Hamm.cn
+ * @apiNote 过滤器中有值的搜索字段、搜索方式和排序相同时生成的 {@code JPQL} 完全相同，参数按位置绑定，
+ * 使 {@code Hibernate} 可以复用已解析的查询计划，而不必每次将 {@code Criteria} 重新转换为 {@code SQL}
+ */
+final class ShapeQuery {
+    /**
+     * <h3>根实体的别名</h3>
+     */
+    static final String ROOT_ALIAS = "e";
+
+    /**
+     * <h3>排序字段名的格式</h3>
+     */
+    private static final Pattern SORT_PROPERTY_PATTERN = Pattern.compile("^[A-Za-z_][A-Za-z0-9_]*$");
+
+    /**
+     * <h3>实体名</h3>
+     */
+    private final String entityName;
+
+    /**
+     * <h3>关联查询语句</h3>
+     */
+    private final StringBuilder joinBuilder = new StringBuilder();
+
+    /**
+     * <h3>查询条件列表</h3>
+     */
+    private final List<String> conditionList = new ArrayList<>();
+
+    /**
+     * <h3>参数列表</h3>
+     */
+    private final List<Object> parameterList = new ArrayList<>();
+
+    /**
+     * <h3>关联数量</h3>
+     */
+    private int joinCount = 0;
+
+    /**
+     * <h3>创建查询语句</h3>
+     *
+     * @param entityName 实体名
+     */
+    ShapeQuery(@NotNull String entityName) {
+        this.entityName = entityName;
+    }
+
+    /**
+     * <h3>是否支持该排序</h3>
+     *
+     * @param sort             排序
+     * @param attributeNameSet 实体的单值属性名
+     * @return 排序字段均为实体的单值属性时支持
+     * @apiNote 排序字段会拼接到 {@code JPQL} 中，不支持时应回退到 {@code Criteria} 查询，由其校验属性是否存在；
+     * 嵌套属性的排序需要左关联，同样不支持
+     */
+    static boolean isSortSupported(@NotNull Sort sort, @NotNull Set<String> attributeNameSet) {
+        return sort.stream().map(Sort.Order::getProperty).allMatch(property ->
+                SORT_PROPERTY_PATTERN.matcher(property).matches() && attributeNameSet.contains(property)
+        );
+    }
+
+    /**
+     * <h3>添加搜索对象的查询条件</h3>
+     *
+     * @param alias   别名
+     * @param search  搜索对象
+     * @param isEqual 是否强匹配
+     */
+    void addSearch(@NotNull String alias, @NotNull Object search, boolean isEqual) {
+        SearchPlan.of(search.getClass()).getSearchFieldList().forEach(searchField -> {
+            Object fieldValue = searchField.getValue(search);
+            if (Objects.isNull(fieldValue) || !StringUtils.hasText(fieldValue.toString())) {
+                // 没有传入查询值 空字符串 跳过
+                return;
+            }
+            switch (searchField.getMode()) {
+                case JOIN:
+                    String joinAlias = "j" + joinCount++;
+                    joinBuilder.append(" JOIN ").append(alias).append('.').append(searchField.getName())
+                            .append(' ').append(joinAlias);
+                    addSearch(joinAlias, fieldValue, isEqual);
+                    break;
+                case LIKE:
+                    if (!isEqual) {
+                        addCondition(alias, searchField.getName(), "LIKE", fieldValue + STRING_PERCENT);
+                        break;
+                    }
+                    // 如果不是模糊匹配，走到default分支
+                default:
+                    addCondition(alias, searchField.getName(), "=", fieldValue);
+            }
+        });
+    }
+
+    /**
+     * <h3>添加查询条件</h3>
+     *
+     * @param alias     别名
+     * @param fieldName 字段名
+     * @param operator  运算符
+     * @param value     参数值，为 {@code null} 时不添加
+     */
+    void addCondition(@NotNull String alias, @NotNull String fieldName, @NotNull String operator, @Nullable Object value) {
+        if (Objects.isNull(value)) {
+            return;
+        }
+        parameterList.add(value);
+        conditionList.add(alias + "." + fieldName + " " + operator + " ?" + parameterList.size());
+    }
+
+    /**
+     * <h3>是否没有任何查询条件</h3>
+     *
+     * @return 没有查询条件也没有关联
+     */
+    boolean isEmpty() {
+        return conditionList.isEmpty() && joinCount == 0;
+    }
+
+    /**
+     * <h3>获取查询语句</h3>
+     *
+     * @param selectFieldList 查询的字段列表，为 {@code null} 时查询实体
+     * @param sort            排序，需先经过 {@link #isSortSupported(Sort, Set)} 校验
+     * @return {@code JPQL}
+     */
+    @NotNull String getSelectJpql(@Nullable List<String> selectFieldList, @NotNull Sort sort) {
+        StringBuilder jpql = new StringBuilder("SELECT ");
+        if (Objects.isNull(selectFieldList)) {
+            jpql.append(ROOT_ALIAS);
+        } else {
+            jpql.append(String.join(", ", selectFieldList.stream().map(field -> ROOT_ALIAS + "." + field).toList()));
+        }
+        appendFromAndWhere(jpql);
+        List<String> orderList = sort.stream()
+                .map(order -> ROOT_ALIAS + "." + order.getProperty() + (order.isAscending() ? " ASC" : " DESC"))
+                .toList();
+        if (!orderList.isEmpty()) {
+            jpql.append(" ORDER BY ").append(String.join(", ", orderList));
+        }
+        return jpql.toString();
+    }
+
+    /**
+     * <h3>获取统计语句</h3>
+     *
+     * @return {@code JPQL}
+     */
+    @NotNull String getCountJpql() {
+        StringBuilder jpql = new StringBuilder("SELECT COUNT(").append(ROOT_ALIAS).append(')');
+        appendFromAndWhere(jpql);
+        return jpql.toString();
+    }
+
+    /**
+     * <h3>绑定参数</h3>
+     *
+     * @param query 查询
+     * @param <T>   结果类型
+     * @return 查询
+     */
+    <T> @NotNull TypedQuery<T> bind(@NotNull TypedQuery<T> query) {
+        for (int index = 0; index < parameterList.size(); index++) {
+            query.setParameter(index + 1, parameterList.get(index));
+        }
+        return query;
+    }
+
+    /**
+     * <h3>拼接 {@code FROM} 和 {@code WHERE}</h3>
+     *
+     * @param jpql 查询语句
+     */
+    private void appendFromAndWhere(@NotNull StringBuilder jpql) {
+        jpql.append(" FROM ").append(entityName).append(' ').append(ROOT_ALIAS).append(joinBuilder);
+        if (!conditionList.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", conditionList));
+        }
+    }
+}
@@ -0,0 +1,484 @@
+package cn.hamm.airpower.root;
+
+import cn.hamm.airpower.annotation.ExcelColumn;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * <h1>{@code Excel} 导出文件的写入器</h1>
+ *
+ * @author Hamm.cn
+ * @apiNote 打开时写入样式、共享字符串、工作表的开头和表头，之后写入的内容均为工作表的行，
+ * 关闭时补齐工作表的结尾并写入工作簿；行直接写入压缩流，内存中不保留已写入的行；
+ * 工作表的行数达到 {@code Excel} 的上限时自动换到下一个工作表并重复表头
+ */
+final class XlsxWriter extends FilterWriter {
+    /**
+     * <h3>写入缓冲大小</h3>
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * <h3>{@code Excel} 每个工作表的最大行数</h3>
+     */
+    static final int MAX_ROW_COUNT = 1_048_576;
+
+    /**
+     * <h3>行的结尾</h3>
+     */
+    private static final String ROW_END = "</row>";
+
+    /**
+     * <h3>时间日期列的宽度</h3>
+     */
+    private static final int DATETIME_WIDTH = 20;
+
+    /**
+     * <h3>其他列的宽度</h3>
+     */
+    private static final int DEFAULT_WIDTH = 16;
+
+    /**
+     * <h3>内容类型的开头</h3>
+     */
+    private static final String CONTENT_TYPES_START = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Types xmlns="http://schemas.openxmlformats.org/package/2006/content-types">
+            <Default Extension="rels" ContentType="application/vnd.openxmlformats-package.relationships+xml"/>
+            <Default Extension="xml" ContentType="application/xml"/>
+            <Override PartName="/xl/workbook.xml" \
+            ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml"/>
+            <Override PartName="/xl/styles.xml" \
+            ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml"/>
+            <Override PartName="/xl/sharedStrings.xml" \
+            ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.sharedStrings+xml"/>
+            """;
+
+    /**
+     * <h3>工作表的内容类型</h3>
+     */
+    private static final String CONTENT_TYPE_SHEET =
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml";
+
+    /**
+     * <h3>包的关系</h3>
+     */
+    private static final String ROOT_RELATIONSHIPS = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+            <Relationship Id="rId1" \
+            Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument" \
+            Target="xl/workbook.xml"/>
+            </Relationships>""";
+
+    /**
+     * <h3>工作簿的开头</h3>
+     */
+    private static final String WORKBOOK_START = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <workbook xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main" \
+            xmlns:r="http://schemas.openxmlformats.org/officeDocument/2006/relationships">
+            <sheets>""";
+
+    /**
+     * <h3>工作簿关系的开头</h3>
+     */
+    private static final String WORKBOOK_RELATIONSHIPS_START = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+            """;
+
+    /**
+     * <h3>关系类型的前缀</h3>
+     */
+    private static final String RELATIONSHIP_TYPE =
+            "http://schemas.openxmlformats.org/officeDocument/2006/relationships/";
+
+    /**
+     * <h3>样式</h3>
+     *
+     * @apiNote 第 {@code 1} 个单元格样式为时间日期，第 {@code 2} 个为加粗的表头
+     * @see ExportPlan#XLSX_STYLE_DATETIME
+     * @see ExportPlan#XLSX_STYLE_HEADER
+     */
+    private static final String STYLES = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <styleSheet xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main">
+            <numFmts count="1"><numFmt numFmtId="164" formatCode="yyyy-mm-dd hh:mm:ss"/></numFmts>
+            <fonts count="2"><font><sz val="11"/></font><font><b/><sz val="11"/></font></fonts>
+            <fills count="2"><fill><patternFill patternType="none"/></fill>\
+            <fill><patternFill patternType="gray125"/></fill></fills>
+            <borders count="1"><border><left/><right/><top/><bottom/><diagonal/></border></borders>
+            <cellStyleXfs count="1"><xf numFmtId="0" fontId="0" fillId="0" borderId="0"/></cellStyleXfs>
+            <cellXfs count="3">
+            <xf numFmtId="0" fontId="0" fillId="0" borderId="0" xfId="0"/>
+            <xf numFmtId="164" fontId="0" fillId="0" borderId="0" xfId="0" applyNumberFormat="1"/>
+            <xf numFmtId="0" fontId="1" fillId="0" borderId="0" xfId="0" applyFont="1"/>
+            </cellXfs>
+            </styleSheet>""";
+
+    /**
+     * <h3>共享字符串的开头</h3>
+     */
+    private static final String SHARED_STRINGS_START = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <sst xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main" uniqueCount=\"""";
+
+    /**
+     * <h3>工作表的开头</h3>
+     *
+     * @apiNote 冻结表头行
+     */
+    private static final String SHEET_START = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <worksheet xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main">
+            <sheetViews><sheetView workbookViewId="0">\
+            <pane ySplit="1" topLeftCell="A2" activePane="bottomLeft" state="frozen"/>\
+            </sheetView></sheetViews>
+            """;
+
+    /**
+     * <h3>工作表的结尾</h3>
+     */
+    private static final String SHEET_END = "</sheetData></worksheet>";
+
+    /**
+     * <h3>压缩流</h3>
+     */
+    private final ZipOutputStream zipOutputStream;
+
+    /**
+     * <h3>导出计划</h3>
+     */
+    private final ExportPlan exportPlan;
+
+    /**
+     * <h3>每个工作表的最大行数</h3>
+     */
+    private final int maxRowCount;
+
+    /**
+     * <h3>工作表的数量</h3>
+     */
+    private int sheetCount = 0;
+
+    /**
+     * <h3>当前工作表已写入的行数</h3>
+     */
+    private int rowCount = 0;
+
+    /**
+     * <h3>已匹配的行结尾字符数</h3>
+     */
+    private int rowEndMatched = 0;
+
+    /**
+     * <h3>创建写入器</h3>
+     *
+     * @param writer          写入压缩流的缓冲写入器
+     * @param zipOutputStream 压缩流
+     * @param exportPlan      导出计划
+     * @param maxRowCount     每个工作表的最大行数
+     */
+    private XlsxWriter(
+            @NotNull Writer writer, @NotNull ZipOutputStream zipOutputStream,
+            @NotNull ExportPlan exportPlan, int maxRowCount
+    ) {
+        super(writer);
+        this.zipOutputStream = zipOutputStream;
+        this.exportPlan = exportPlan;
+        this.maxRowCount = maxRowCount;
+    }
+
+    /**
+     * <h3>打开写入器</h3>
+     *
+     * @param outputStream 文件的输出流，关闭写入器时一并关闭
+     * @param exportPlan   导出计划
+     * @return 写入器，已写入表头
+     * @throws IOException 写入失败
+     */
+    static @NotNull XlsxWriter open(
+            @NotNull OutputStream outputStream, @NotNull ExportPlan exportPlan
+    ) throws IOException {
+        return open(outputStream, exportPlan, MAX_ROW_COUNT);
+    }
+
+    /**
+     * <h3>打开写入器</h3>
+     *
+     * @param outputStream 文件的输出流，关闭写入器时一并关闭
+     * @param exportPlan   导出计划
+     * @param maxRowCount  每个工作表的最大行数，包含表头
+     * @return 写入器，已写入表头
+     * @throws IOException 写入失败
+     */
+    static @NotNull XlsxWriter open(
+            @NotNull OutputStream outputStream, @NotNull ExportPlan exportPlan, int maxRowCount
+    ) throws IOException {
+        ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream, UTF_8);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(zipOutputStream, UTF_8), BUFFER_SIZE);
+        XlsxWriter xlsxWriter = new XlsxWriter(writer, zipOutputStream, exportPlan, Math.max(2, maxRowCount));
+        try {
+            writeEntry(zipOutputStream, writer, "xl/styles.xml", STYLES);
+            writeEntry(zipOutputStream, writer, "xl/sharedStrings.xml", getSharedStrings(exportPlan));
+            xlsxWriter.startSheet();
+        } catch (IOException | RuntimeException exception) {
+            writer.close();
+            throw exception;
+        }
+        return xlsxWriter;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        beforeWrite();
+        out.write(c);
+        if (isRowEnd((char) c)) {
+            rowCount++;
+        }
+    }
+
+    @Override
+    public void write(char @NotNull [] cbuf, int off, int len) throws IOException {
+        int start = off;
+        for (int index = off; index < off + len; index++) {
+            if (isRowEnd(cbuf[index])) {
+                beforeWrite();
+                out.write(cbuf, start, index + 1 - start);
+                start = index + 1;
+                rowCount++;
+            }
+        }
+        if (start < off + len) {
+            beforeWrite();
+            out.write(cbuf, start, off + len - start);
+        }
+    }
+
+    @Override
+    public void write(@NotNull String str, int off, int len) throws IOException {
+        int start = off;
+        for (int index = off; index < off + len; index++) {
+            if (isRowEnd(str.charAt(index))) {
+                beforeWrite();
+                out.write(str, start, index + 1 - start);
+                start = index + 1;
+                rowCount++;
+            }
+        }
+        if (start < off + len) {
+            beforeWrite();
+            out.write(str, start, off + len - start);
+        }
+    }
+
+    /**
+     * <h3>补齐工作表的结尾，写入工作簿并关闭</h3>
+     *
+     * @throws IOException 写入失败
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            endSheet();
+            writeEntry(zipOutputStream, out, "[Content_Types].xml", getContentTypes());
+            writeEntry(zipOutputStream, out, "_rels/.rels", ROOT_RELATIONSHIPS);
+            writeEntry(zipOutputStream, out, "xl/workbook.xml", getWorkbook());
+            writeEntry(zipOutputStream, out, "xl/_rels/workbook.xml.rels", getWorkbookRelationships());
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * <h3>匹配行的结尾</h3>
+     *
+     * @param c 写入的字符
+     * @return 是否刚好写完一行
+     * @apiNote 单元格的文本已转义，{@code </row>} 只会出现在行的结尾
+     */
+    private boolean isRowEnd(char c) {
+        if (c == ROW_END.charAt(rowEndMatched)) {
+            rowEndMatched++;
+        } else {
+            rowEndMatched = c == ROW_END.charAt(0) ? 1 : 0;
+        }
+        if (rowEndMatched < ROW_END.length()) {
+            return false;
+        }
+        rowEndMatched = 0;
+        return true;
+    }
+
+    /**
+     * <h3>写入行的内容之前</h3>
+     *
+     * @throws IOException 写入失败
+     * @apiNote 当前工作表已写满时换到下一个工作表，写满后没有更多的行则不产生空的工作表
+     */
+    private void beforeWrite() throws IOException {
+        if (rowCount < maxRowCount) {
+            return;
+        }
+        endSheet();
+        startSheet();
+    }
+
+    /**
+     * <h3>开始一个工作表并写入表头</h3>
+     *
+     * @throws IOException 写入失败
+     */
+    private void startSheet() throws IOException {
+        sheetCount++;
+        zipOutputStream.putNextEntry(new ZipEntry(getSheetEntry(sheetCount)));
+        out.write(SHEET_START);
+        out.write(getColumns(exportPlan));
+        out.write("<sheetData>");
+        out.write(exportPlan.getXlsxHeader());
+        rowCount = 1;
+    }
+
+    /**
+     * <h3>补齐当前工作表的结尾</h3>
+     *
+     * @throws IOException 写入失败
+     */
+    private void endSheet() throws IOException {
+        out.write(SHEET_END);
+        out.flush();
+        zipOutputStream.closeEntry();
+    }
+
+    /**
+     * <h3>获取工作表的路径</h3>
+     *
+     * @param sheetIndex 工作表的序号，从 {@code 1} 开始
+     * @return 工作表在压缩包中的路径
+     */
+    private static @NotNull String getSheetEntry(int sheetIndex) {
+        return "xl/worksheets/sheet" + sheetIndex + ".xml";
+    }
+
+    /**
+     * <h3>获取内容类型</h3>
+     *
+     * @return 内容类型的 {@code XML}
+     */
+    private @NotNull String getContentTypes() {
+        StringBuilder xml = new StringBuilder(CONTENT_TYPES_START);
+        for (int index = 1; index <= sheetCount; index++) {
+            xml.append("<Override PartName=\"/").append(getSheetEntry(index))
+                    .append("\" ContentType=\"").append(CONTENT_TYPE_SHEET).append("\"/>\n");
+        }
+        return xml.append("</Types>").toString();
+    }
+
+    /**
+     * <h3>获取工作簿</h3>
+     *
+     * @return 工作簿的 {@code XML}，第 {@code N} 个工作表的关系为 {@code rIdN}
+     */
+    private @NotNull String getWorkbook() {
+        StringBuilder xml = new StringBuilder(WORKBOOK_START);
+        for (int index = 1; index <= sheetCount; index++) {
+            xml.append("<sheet name=\"Sheet").append(index).append("\" sheetId=\"").append(index)
+                    .append("\" r:id=\"rId").append(index).append("\"/>");
+        }
+        return xml.append("</sheets>\n</workbook>").toString();
+    }
+
+    /**
+     * <h3>获取工作簿的关系</h3>
+     *
+     * @return 工作簿关系的 {@code XML}，样式和共享字符串排在工作表之后
+     */
+    private @NotNull String getWorkbookRelationships() {
+        StringBuilder xml = new StringBuilder(WORKBOOK_RELATIONSHIPS_START);
+        for (int index = 1; index <= sheetCount; index++) {
+            appendRelationship(xml, index, "worksheet", "worksheets/sheet" + index + ".xml");
+        }
+        appendRelationship(xml, sheetCount + 1, "styles", "styles.xml");
+        appendRelationship(xml, sheetCount + 2, "sharedStrings", "sharedStrings.xml");
+        return xml.append("</Relationships>").toString();
+    }
+
+    /**
+     * <h3>追加一个关系</h3>
+     *
+     * @param xml    关系的 {@code XML}
+     * @param id     关系的序号
+     * @param type   关系的类型
+     * @param target 关系的目标
+     */
+    private static void appendRelationship(@NotNull StringBuilder xml, int id, @NotNull String type,
+                                           @NotNull String target) {
+        xml.append("<Relationship Id=\"rId").append(id).append("\" Type=\"").append(RELATIONSHIP_TYPE).append(type)
+                .append("\" Target=\"").append(target).append("\"/>\n");
+    }
+
+    /**
+     * <h3>写入一个完整的文件</h3>
+     *
+     * @param zipOutputStream 压缩流
+     * @param writer          写入压缩流的缓冲写入器
+     * @param name            文件名
+     * @param content         文件内容
+     * @throws IOException 写入失败
+     */
+    private static void writeEntry(
+            @NotNull ZipOutputStream zipOutputStream, @NotNull Writer writer,
+            @NotNull String name, @NotNull String content
+    ) throws IOException {
+        zipOutputStream.putNextEntry(new ZipEntry(name));
+        writer.write(content);
+        writer.flush();
+        zipOutputStream.closeEntry();
+    }
+
+    /**
+     * <h3>获取共享字符串</h3>
+     *
+     * @param exportPlan 导出计划
+     * @return 共享字符串的 {@code XML}
+     */
+    private static @NotNull String getSharedStrings(@NotNull ExportPlan exportPlan) {
+        List<String> sharedStringList = exportPlan.getSharedStringList();
+        StringBuilder xml = new StringBuilder(SHARED_STRINGS_START)
+                .append(sharedStringList.size())
+                .append("\">");
+        for (String sharedString : sharedStringList) {
+            xml.append("<si><t xml:space=\"preserve\">");
+            ExportPlan.appendXml(xml, sharedString);
+            xml.append("</t></si>");
+        }
+        return xml.append("</sst>").toString();
+    }
+
+    /**
+     * <h3>获取列宽</h3>
+     *
+     * @param exportPlan 导出计划
+     * @return 列宽的 {@code XML}，时间日期列加宽以完整显示
+     */
+    private static @NotNull String getColumns(@NotNull ExportPlan exportPlan) {
+        List<ExcelColumn.Type> typeList = exportPlan.getTypeList();
+        if (typeList.isEmpty()) {
+            return "";
+        }
+        StringBuilder xml = new StringBuilder("<cols>");
+        for (int index = 1; index <= typeList.size(); index++) {
+            xml.append("<col min=\"").append(index).append("\" max=\"").append(index).append("\" width=\"")
+                    .append(typeList.get(index - 1) == ExcelColumn.Type.DATETIME ? DATETIME_WIDTH : DEFAULT_WIDTH)
+                    .append("\" customWidth=\"1\"/>");
+        }
+        return xml.append("</cols>").toString();
+    }
+}
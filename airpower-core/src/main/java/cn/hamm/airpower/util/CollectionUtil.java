@@ -32,4 +32,21 @@ public class CollectionUtil {
         }
         return Objects.isNull(list) ? new ArrayList<>() : list;
     }
+
+    /**
+     * <h3>将列表按指定大小分批</h3>
+     *
+     * @param list      原始列表
+     * @param batchSize 每批的大小
+     * @param <T>       数据类型
+     * @return 分批后的列表(子列表为原始列表的视图)
+     */
+    public static @NotNull <T> List<List<T>> split(@NotNull List<T> list, int batchSize) {
+        final int size = Math.max(1, batchSize);
+        List<List<T>> batchList = new ArrayList<>((list.size() + size - 1) / size);
+        for (int from = 0; from < list.size(); from += size) {
+            batchList.add(list.subList(from, Math.min(from + size, list.size())));
+        }
+        return batchList;
+    }
 }
@@ -7,6 +7,7 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
 import java.time.Instant;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 
@@ -142,6 +143,31 @@ public class DateTimeUtil {
         return beijingTime.format(java.time.format.DateTimeFormatter.ofPattern(formatter));
     }
 
+    /**
+     * <h3>解析时间</h3>
+     *
+     * @param text 按 {@link DateTimeFormatter#FULL_DATETIME} 格式化的时间
+     * @return 毫秒
+     * @throws java.time.format.DateTimeParseException 格式不正确
+     */
+    public static long parse(@NotNull String text) {
+        return LocalDateTime.parse(text, java.time.format.DateTimeFormatter.ofPattern(FULL_DATETIME.getValue()))
+                .atZone(ZoneId.of(ASIA_CHONGQING))
+                .toInstant()
+                .toEpochMilli();
+    }
+
+    /**
+     * <h3>获取默认时区的偏移毫秒数</h3>
+     *
+     * @param milliSecond 毫秒
+     * @return 该时刻默认时区相对 {@code UTC} 的偏移毫秒数
+     */
+    public static long getOffsetMilliSecond(long milliSecond) {
+        return ZoneId.of(ASIA_CHONGQING).getRules().getOffset(Instant.ofEpochMilli(milliSecond)).getTotalSeconds()
+                * (long) MILLISECONDS_PER_SECOND;
+    }
+
     /**
      * <h3>友好格式化时间</h3>
      *
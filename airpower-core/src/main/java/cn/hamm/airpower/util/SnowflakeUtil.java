@@ -0,0 +1,165 @@
+package cn.hamm.airpower.util;
+
+import cn.hamm.airpower.exception.ServiceException;
+import org.jetbrains.annotations.Contract;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static cn.hamm.airpower.exception.ServiceError.SERVICE_ERROR;
+
+/**
+ * <h1>雪花ID工具类</h1>
+ *
+ * @author Hamm.cn
+ * @apiNote {@code 41} 位毫秒时间戳、{@code 10} 位节点ID、{@code 12} 位序列号，同一节点生成的 {@code ID} 单调递增；
+ * 时钟小幅回拨时沿用上次的时间戳继续递增序列号，回拨超过 {@link #MAX_BACKWARD_MILLISECOND} 毫秒时抛出异常
+ */
+public class SnowflakeUtil {
+    /**
+     * <h3>起始时间</h3>
+     *
+     * @apiNote {@code 2024-01-01 00:00:00 UTC}
+     */
+    public static final long EPOCH = 1704067200000L;
+
+    /**
+     * <h3>节点ID的位数</h3>
+     */
+    public static final int NODE_BITS = 10;
+
+    /**
+     * <h3>序列号的位数</h3>
+     */
+    public static final int SEQUENCE_BITS = 12;
+
+    /**
+     * <h3>最大节点ID</h3>
+     */
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    /**
+     * <h3>允许的最大时钟回拨(毫秒)</h3>
+     */
+    public static final long MAX_BACKWARD_MILLISECOND = 5000;
+
+    /**
+     * <h3>最大序列号</h3>
+     */
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+
+    /**
+     * <h3>时间戳的偏移位数</h3>
+     */
+    private static final int TIMESTAMP_SHIFT = NODE_BITS + SEQUENCE_BITS;
+
+    /**
+     * <h3>上次生成的时间戳和序列号</h3>
+     *
+     * @apiNote 时间戳左移 {@link #SEQUENCE_BITS} 位后与序列号合并，通过 {@code CAS} 无锁更新
+     */
+    private static final AtomicLong LAST_STATE = new AtomicLong();
+
+    /**
+     * <h3>当前节点ID</h3>
+     */
+    private static volatile int nodeId = -1;
+
+    /**
+     * <h3>禁止外部实例化</h3>
+     */
+    @Contract(pure = true)
+    private SnowflakeUtil() {
+    }
+
+    /**
+     * <h3>设置当前节点ID</h3>
+     *
+     * @param nodeId 节点ID，取值 {@code 0} 到 {@link #MAX_NODE_ID}
+     */
+    public static void setNodeId(int nodeId) {
+        SERVICE_ERROR.when(nodeId < 0 || nodeId > MAX_NODE_ID, "雪花ID的节点ID必须在0-" + MAX_NODE_ID + "之间");
+        SnowflakeUtil.nodeId = nodeId;
+    }
+
+    /**
+     * <h3>清除当前节点ID</h3>
+     *
+     * @apiNote 清除后生成ID会直接失败，直到重新设置节点ID
+     */
+    public static void clearNodeId() {
+        SnowflakeUtil.nodeId = -1;
+    }
+
+    /**
+     * <h3>获取当前节点ID</h3>
+     *
+     * @return 节点ID，未设置时返回 {@code -1}
+     */
+    public static int getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * <h3>生成下一个ID</h3>
+     *
+     * @return ID
+     */
+    public static long nextId() {
+        final long currentNodeId = nodeId;
+        SERVICE_ERROR.when(currentNodeId < 0, "雪花ID的节点ID尚未分配");
+        while (true) {
+            long last = LAST_STATE.get();
+            long lastTimestamp = last >>> SEQUENCE_BITS;
+            long timestamp = System.currentTimeMillis() - EPOCH;
+            long next;
+            if (timestamp > lastTimestamp) {
+                next = timestamp << SEQUENCE_BITS;
+            } else {
+                if (lastTimestamp - timestamp > MAX_BACKWARD_MILLISECOND) {
+                    throw new ServiceException(SERVICE_ERROR, "系统时钟回拨了" + (lastTimestamp - timestamp) + "毫秒");
+                }
+                if ((last & MAX_SEQUENCE) == MAX_SEQUENCE) {
+                    // 当前毫秒的序列号已用完 等待下一毫秒
+                    Thread.onSpinWait();
+                    continue;
+                }
+                next = last + 1;
+            }
+            if (LAST_STATE.compareAndSet(last, next)) {
+                return ((next >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT)
+                        | (currentNodeId << SEQUENCE_BITS)
+                        | (next & MAX_SEQUENCE);
+            }
+        }
+    }
+
+    /**
+     * <h3>获取ID的生成时间</h3>
+     *
+     * @param id ID
+     * @return 毫秒时间戳
+     */
+    public static long getTimestamp(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + EPOCH;
+    }
+
+    /**
+     * <h3>获取ID的节点ID</h3>
+     *
+     * @param id ID
+     * @return 节点ID
+     */
+    public static int getNodeId(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+
+    /**
+     * <h3>获取ID的序列号</h3>
+     *
+     * @param id ID
+     * @return 序列号
+     */
+    public static int getSequence(long id) {
+        return (int) (id & MAX_SEQUENCE);
+    }
+}
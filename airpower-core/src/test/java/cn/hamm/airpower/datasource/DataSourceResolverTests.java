@@ -0,0 +1,95 @@
+package cn.hamm.airpower.datasource;
+
+import cn.hamm.airpower.config.Configs;
+import cn.hamm.airpower.config.ReplicaConfig;
+import com.alibaba.druid.pool.DruidDataSource;
+import com.alibaba.druid.pool.DruidPooledConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class DataSourceResolverTests {
+    private final ReplicaConfig replicaConfig = new ReplicaConfig().setEnabled(true);
+
+    private final Connection primaryConnection = Mockito.mock(Connection.class);
+
+    private final DruidPooledConnection replicaConnection = Mockito.mock(DruidPooledConnection.class);
+
+    private final DruidDataSource replica = Mockito.mock(DruidDataSource.class);
+
+    private DataSourceResolver resolver;
+
+    @BeforeEach
+    void init() throws SQLException {
+        DataSource primary = Mockito.mock(DataSource.class);
+        Mockito.when(primary.getConnection()).thenReturn(primaryConnection);
+        Mockito.when(replica.getConnection()).thenReturn(replicaConnection);
+        ReflectionTestUtils.setField(Configs.class, "replicaConfig", replicaConfig);
+        resolver = new DataSourceResolver();
+        ReflectionTestUtils.setField(resolver, "replicaConfig", replicaConfig);
+        resolver.setDefaultTargetDataSource(primary);
+        resolver.initialize();
+        resolver.setReplicaList(null, List.of(replica));
+    }
+
+    @AfterEach
+    void clear() {
+        resolver.setReplicaList(null, List.of());
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void routeToReplica() throws SQLException {
+        assertSame(replicaConnection, readConnection());
+        assertSame(primaryConnection, resolver.getConnection());
+
+        replicaConfig.setEnabled(false);
+        assertSame(primaryConnection, readConnection());
+        replicaConfig.setEnabled(true);
+    }
+
+    @Test
+    void pinPrimary() {
+        DataSourceResolver.pinPrimary();
+        assertSame(replicaConnection, readConnection());
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        DataSourceResolver.pinPrimary();
+        assertSame(primaryConnection, readConnection());
+
+        // 下一个请求复用同一线程时不再固定走主库
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertSame(replicaConnection, readConnection());
+    }
+
+    @Test
+    void fallbackToPrimary() throws SQLException {
+        Mockito.when(replica.getConnection()).thenThrow(new SQLException("replica down"));
+        assertSame(primaryConnection, readConnection());
+
+        resolver.setReplicaList(null, List.of());
+        assertSame(primaryConnection, readConnection());
+    }
+
+    private Connection readConnection() {
+        return DataSourceResolver.readFromReplica(() -> {
+            try {
+                return resolver.getConnection();
+            } catch (SQLException exception) {
+                throw new IllegalStateException(exception);
+            }
+        });
+    }
+}
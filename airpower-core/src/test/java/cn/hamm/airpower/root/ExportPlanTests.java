@@ -0,0 +1,301 @@
+package cn.hamm.airpower.root;
+
+import cn.hamm.airpower.annotation.Description;
+import cn.hamm.airpower.annotation.ExcelColumn;
+import cn.hamm.airpower.exception.ServiceException;
+import cn.hamm.airpower.interfaces.IDictionary;
+import cn.hamm.airpower.util.DateTimeUtil;
+import cn.hamm.airpower.validate.dictionary.Dictionary;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static cn.hamm.airpower.annotation.ExcelColumn.Type.*;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExportPlanTests {
+    private static final long TIME = 1704067200000L;
+
+    @Test
+    void header() {
+        assertEquals("名称,时间,状态,启用,数量", ExportPlan.of(Row.class).getHeader());
+    }
+
+    @Test
+    void format() {
+        Row row = new Row();
+        row.name = "a,b\nc";
+        row.time = TIME;
+        row.status = 2;
+        row.enabled = true;
+        row.count = 7;
+        assertEquals("\"\ta,b\nc\",\t" + DateTimeUtil.format(TIME) + ",停用,是,7", ExportPlan.of(Row.class).getRow(row));
+    }
+
+    @Test
+    void fallback() {
+        Row row = new Row();
+        row.name = "";
+        row.status = 9;
+        assertEquals("\t-,-,9,-,-", ExportPlan.of(Row.class).getRow(row));
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        ExportPlan exportPlan = ExportPlan.of(Row.class);
+        Row row = new Row();
+        row.name = "name";
+        row.time = TIME;
+        row.status = 2;
+        row.enabled = false;
+        row.count = -7;
+        String csv = "\uFEFF" + exportPlan.getHeader() + "\r\n" +
+                exportPlan.getRow(row) + "\n" +
+                exportPlan.getRow(new Row());
+        BufferedReader reader = new BufferedReader(new StringReader(csv));
+
+        List<String> headerCellList = ExportPlan.readRow(reader);
+        ExportPlan.ExportColumn[] importColumns = exportPlan.getImportColumns(headerCellList);
+        for (ExportPlan.ExportColumn importColumn : importColumns) {
+            assertNotNull(importColumn);
+        }
+
+        Row parsed = new Row();
+        ExportPlan.parseRow(parsed, importColumns, ExportPlan.readRow(reader));
+        assertEquals("name", parsed.name);
+        assertEquals(TIME, parsed.time);
+        assertEquals(2, parsed.status);
+        assertEquals(false, parsed.enabled);
+        assertEquals(-7, parsed.count);
+
+        Row empty = new Row();
+        ExportPlan.parseRow(empty, importColumns, ExportPlan.readRow(reader));
+        assertNull(empty.name);
+        assertNull(empty.time);
+        assertNull(empty.status);
+        assertNull(empty.enabled);
+        assertNull(empty.count);
+        assertNull(ExportPlan.readRow(reader));
+    }
+
+    @Test
+    void parseCell() throws IOException {
+        ExportPlan exportPlan = ExportPlan.of(Row.class);
+        ExportPlan.ExportColumn[] importColumns = exportPlan.getImportColumns(List.of("状态", "启用", "时间", "未知"));
+        assertNull(importColumns[3]);
+        Row row = new Row();
+        ExportPlan.parseRow(row, importColumns, List.of("正常", "是", "2024-01-01 08:00:00", "ignored"));
+        assertEquals(1, row.status);
+        assertEquals(true, row.enabled);
+        assertEquals(TIME, row.time);
+        assertEquals(TIME, DateTimeUtil.parse(DateTimeUtil.format(TIME)));
+
+        ExportPlan.parseRow(row, importColumns, List.of("2", "否", String.valueOf(TIME + 1)));
+        assertEquals(2, row.status);
+        assertEquals(false, row.enabled);
+        assertEquals(TIME + 1, row.time);
+
+        List<String> invalidCellList = List.of("", "", "tomorrow");
+        assertThrows(ServiceException.class, () -> ExportPlan.parseRow(row, importColumns, invalidCellList));
+    }
+
+    @Test
+    void readQuotedRow() throws IOException {
+        BufferedReader reader = new BufferedReader(new StringReader(
+                "\"a,b\",\"line\nbreak\",\"say \"\"hi\"\"\",,plain\n\"\"\n"
+        ));
+        assertEquals(List.of("a,b", "line\nbreak", "say \"hi\"", "", "plain"), ExportPlan.readRow(reader));
+        assertEquals(List.of(""), ExportPlan.readRow(reader));
+        assertNull(ExportPlan.readRow(reader));
+
+        BufferedReader unclosed = new BufferedReader(new StringReader("\"" + "xxxxxxxxxx\n".repeat(120_000)));
+        assertThrows(ServiceException.class, () -> ExportPlan.readRow(unclosed));
+
+        BufferedReader inner = new BufferedReader(new StringReader("a\"b,c\"\r\"d\"\"\"\rx"));
+        assertEquals(List.of("a\"b", "c\""), ExportPlan.readRow(inner));
+        assertEquals(List.of("d\""), ExportPlan.readRow(inner));
+        assertEquals(List.of("x"), ExportPlan.readRow(inner));
+        assertNull(ExportPlan.readRow(inner));
+    }
+
+    @Test
+    void quotedRoundTrip() throws IOException {
+        List<String> cellList = List.of("say \"hi\"", "a,b", "carriage\rreturn", "crlf\r\nline\nbreak", "\"", "", "plain");
+        StringBuilder csv = new StringBuilder();
+        ExportPlan.appendCells(csv, cellList);
+        csv.append("\r\n");
+        ExportPlan.appendCells(csv, cellList);
+        assertTrue(csv.toString().startsWith("\"say \"\"hi\"\"\",\"a,b\",\"carriage\rreturn\","));
+
+        BufferedReader reader = new BufferedReader(new StringReader(csv.toString()));
+        assertEquals(cellList, ExportPlan.readRow(reader));
+        assertEquals(cellList, ExportPlan.readRow(reader));
+        assertNull(ExportPlan.readRow(reader));
+    }
+
+    @Test
+    void xlsxRow() {
+        ExportPlan exportPlan = ExportPlan.of(Row.class);
+        List<String> sharedStringList = exportPlan.getSharedStringList();
+        assertEquals(List.of("名称", "时间", "状态", "启用", "数量"), sharedStringList.subList(0, 5));
+        Row row = new Row();
+        row.name = "a<b";
+        row.time = TIME;
+        row.status = 2;
+        row.enabled = true;
+        row.count = 7;
+        StringBuilder xml = new StringBuilder();
+        exportPlan.appendXlsxRow(xml, row);
+        String expected = "<row>" +
+                "<c t=\"inlineStr\"><is><t>a&lt;b</t></is></c>" +
+                "<c s=\"1\"><v>" + ((TIME + 8 * 3_600_000L) / 86_400_000d + 25569) + "</v></c>" +
+                "<c t=\"s\"><v>" + sharedStringList.indexOf("停用") + "</v></c>" +
+                "<c t=\"b\"><v>1</v></c>" +
+                "<c><v>7</v></c>" +
+                "</row>";
+        assertEquals(expected, xml.toString());
+
+        xml.setLength(0);
+        exportPlan.appendXlsxRow(xml, new Row());
+        assertEquals("<row><c/><c/><c/><c/><c/></row>", xml.toString());
+    }
+
+    @Test
+    void xlsxLargeNumber() {
+        ExportPlan exportPlan = ExportPlan.of(IdRow.class);
+        IdRow row = new IdRow();
+        row.id = RootIdSerializer.MAX_SAFE_INTEGER;
+        StringBuilder xml = new StringBuilder();
+        exportPlan.appendXlsxRow(xml, row);
+        assertEquals("<row><c><v>" + RootIdSerializer.MAX_SAFE_INTEGER + "</v></c></row>", xml.toString());
+
+        for (long id : new long[]{RootIdSerializer.MAX_SAFE_INTEGER + 1, Long.MIN_VALUE}) {
+            row.id = id;
+            xml.setLength(0);
+            exportPlan.appendXlsxRow(xml, row);
+            assertEquals("<row><c t=\"inlineStr\"><is><t>" + id + "</t></is></c></row>", xml.toString());
+        }
+    }
+
+    @Test
+    void xlsxFile() throws IOException {
+        ExportPlan exportPlan = ExportPlan.of(Row.class);
+        Row row = new Row();
+        row.name = "name";
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (Writer writer = XlsxWriter.open(outputStream, exportPlan)) {
+            StringBuilder xml = new StringBuilder();
+            exportPlan.appendXlsxRow(xml, row);
+            writer.append(xml);
+        }
+        Map<String, String> entryMap = readZip(outputStream.toByteArray());
+        assertTrue(entryMap.keySet().containsAll(List.of(
+                "[Content_Types].xml", "_rels/.rels", "xl/workbook.xml", "xl/_rels/workbook.xml.rels",
+                "xl/styles.xml", "xl/sharedStrings.xml", "xl/worksheets/sheet1.xml"
+        )));
+        String sheet = entryMap.get("xl/worksheets/sheet1.xml");
+        assertTrue(sheet.contains("<sheetData>" + exportPlan.getXlsxHeader() + "<row>"));
+        assertTrue(sheet.endsWith("</row></sheetData></worksheet>"));
+        assertTrue(entryMap.get("xl/sharedStrings.xml").contains("<si><t xml:space=\"preserve\">停用</t></si>"));
+    }
+
+    @Test
+    void xlsxSheetRollover() throws IOException {
+        ExportPlan exportPlan = ExportPlan.of(Row.class);
+        Row row = new Row();
+        row.name = "</row>";
+        StringBuilder xml = new StringBuilder();
+        exportPlan.appendXlsxRow(xml, row);
+        String rowXml = xml.toString();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (Writer writer = XlsxWriter.open(outputStream, exportPlan, 3)) {
+            // 4 行数据每个工作表 2 行，一行拆开写入
+            writer.write(rowXml + rowXml.substring(0, 3));
+            writer.write(rowXml.substring(3).toCharArray());
+            writer.append(rowXml).append(rowXml);
+        }
+        Map<String, String> entryMap = readZip(outputStream.toByteArray());
+        assertTrue(entryMap.containsKey("xl/worksheets/sheet2.xml"));
+        assertNull(entryMap.get("xl/worksheets/sheet3.xml"));
+        for (String name : List.of("xl/worksheets/sheet1.xml", "xl/worksheets/sheet2.xml")) {
+            assertTrue(entryMap.get(name).endsWith(
+                    "<sheetData>" + exportPlan.getXlsxHeader() + rowXml + rowXml + "</sheetData></worksheet>"
+            ));
+        }
+        assertTrue(entryMap.get("[Content_Types].xml").contains("PartName=\"/xl/worksheets/sheet2.xml\""));
+        assertTrue(entryMap.get("xl/workbook.xml").contains("<sheet name=\"Sheet2\" sheetId=\"2\" r:id=\"rId2\"/>"));
+        String relationships = entryMap.get("xl/_rels/workbook.xml.rels");
+        assertTrue(relationships.contains("Id=\"rId2\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/" +
+                "relationships/worksheet\" Target=\"worksheets/sheet2.xml\""));
+        assertTrue(relationships.contains("Id=\"rId3\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/" +
+                "relationships/styles\""));
+    }
+
+    private static @NotNull Map<String, String> readZip(byte[] bytes) throws IOException {
+        Map<String, String> entryMap = new HashMap<>();
+        try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(bytes))) {
+            ZipEntry entry;
+            while ((entry = zipInputStream.getNextEntry()) != null) {
+                entryMap.put(entry.getName(), new String(zipInputStream.readAllBytes(), UTF_8));
+            }
+        }
+        return entryMap;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    enum Status implements IDictionary {
+        NORMAL(1, "正常"),
+        DISABLED(2, "停用");
+
+        private final int key;
+        private final String label;
+    }
+
+    static class IdRow {
+        @Description("编号")
+        @ExcelColumn(NUMBER)
+        Long id;
+    }
+
+    static class Row {
+        @Description("名称")
+        @ExcelColumn(TEXT)
+        String name;
+
+        @Description("时间")
+        @ExcelColumn(DATETIME)
+        Long time;
+
+        @Description("状态")
+        @ExcelColumn(DICTIONARY)
+        @Dictionary(Status.class)
+        Integer status;
+
+        @Description("启用")
+        @ExcelColumn(BOOLEAN)
+        Boolean enabled;
+
+        @Description("数量")
+        @ExcelColumn(NUMBER)
+        Integer count;
+    }
+}
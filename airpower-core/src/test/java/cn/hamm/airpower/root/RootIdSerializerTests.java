@@ -0,0 +1,36 @@
+package cn.hamm.airpower.root;
+
+import cn.hamm.airpower.annotation.SnowflakeId;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RootIdSerializerTests {
+    private static final long SNOWFLAKE_ID = 7_318_365_234_446_336_123L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void snowflakeEntity() throws JsonProcessingException {
+        String json = objectMapper.writeValueAsString(new SnowflakeEntity().setId(1L));
+        assertEquals("{\"id\":\"1\"}", json);
+        assertEquals(1L, objectMapper.readValue(json, SnowflakeEntity.class).getId());
+    }
+
+    @Test
+    void identityEntity() throws JsonProcessingException {
+        assertEquals("{\"id\":1}", objectMapper.writeValueAsString(new IdentityEntity().setId(1L)));
+        String json = objectMapper.writeValueAsString(new IdentityEntity().setId(SNOWFLAKE_ID));
+        assertEquals("{\"id\":\"" + SNOWFLAKE_ID + "\"}", json);
+        assertEquals(SNOWFLAKE_ID, objectMapper.readValue(json, IdentityEntity.class).getId());
+    }
+
+    @SnowflakeId
+    static class SnowflakeEntity extends RootEntity<SnowflakeEntity> {
+    }
+
+    static class IdentityEntity extends RootEntity<IdentityEntity> {
+    }
+}
@@ -0,0 +1,41 @@
+package cn.hamm.airpower.root;
+
+import cn.hamm.airpower.config.ReplicaConfig;
+import cn.hamm.airpower.datasource.DataSourceResolver;
+import cn.hamm.airpower.helper.TransactionHelper;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RootServiceReplicaTests {
+    @Test
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void readFromReplicaWithoutTransaction() {
+        assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+        AtomicBoolean readInTransaction = new AtomicBoolean(false);
+        TransactionHelper transactionHelper = Mockito.mock(TransactionHelper.class);
+        Mockito.when(transactionHelper.query(Mockito.any())).thenAnswer(invocation -> {
+            readInTransaction.set(DataSourceResolver.isReadingReplica());
+            return ((Supplier<?>) invocation.getArgument(0)).get();
+        });
+        RootService service = new RootService();
+        ReflectionTestUtils.setField(service, "replicaConfig", new ReplicaConfig().setEnabled(true));
+        ReflectionTestUtils.setField(service, "transactionHelper", transactionHelper);
+
+        Supplier<String> supplier = () -> "row";
+        Object result = ReflectionTestUtils.invokeMethod(service, "readFromReplica", supplier);
+
+        assertEquals("row", result);
+        assertTrue(readInTransaction.get());
+        assertFalse(DataSourceResolver.isReadingReplica());
+        Mockito.verify(transactionHelper).query(supplier);
+    }
+}
@@ -0,0 +1,29 @@
+package cn.hamm.airpower.root;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShapeQueryTests {
+    private static final Set<String> ATTRIBUTE_NAME_SET = Set.of("id", "createTime", "name");
+
+    @Test
+    void sortByAttribute() {
+        assertTrue(ShapeQuery.isSortSupported(Sort.unsorted(), Set.of()));
+        assertTrue(ShapeQuery.isSortSupported(Sort.by(Sort.Direction.DESC, "id", "createTime"), ATTRIBUTE_NAME_SET));
+    }
+
+    @Test
+    void rejectInjectedSort() {
+        Sort sort = Sort.by(Sort.Direction.ASC,
+                "id, CASE WHEN substring(password,1,1)='a' THEN id ELSE createTime END");
+        assertFalse(ShapeQuery.isSortSupported(sort, ATTRIBUTE_NAME_SET));
+        assertFalse(ShapeQuery.isSortSupported(Sort.by("password"), ATTRIBUTE_NAME_SET));
+        assertFalse(ShapeQuery.isSortSupported(Sort.by("user.name"), ATTRIBUTE_NAME_SET));
+        assertFalse(ShapeQuery.isSortSupported(Sort.by("name "), ATTRIBUTE_NAME_SET));
+    }
+}
@@ -0,0 +1,72 @@
+package cn.hamm.airpower.util;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnowflakeUtilTests {
+    private static final int NODE_ID = 7;
+
+    @BeforeAll
+    static void init() {
+        SnowflakeUtil.setNodeId(NODE_ID);
+    }
+
+    @Test
+    void decompose() {
+        long before = System.currentTimeMillis();
+        long id = SnowflakeUtil.nextId();
+        long after = System.currentTimeMillis();
+        assertTrue(id > 0);
+        assertEquals(NODE_ID, SnowflakeUtil.getNodeId(id));
+        assertTrue(SnowflakeUtil.getTimestamp(id) >= before - SnowflakeUtil.MAX_BACKWARD_MILLISECOND);
+        assertTrue(SnowflakeUtil.getTimestamp(id) <= after);
+    }
+
+    @Test
+    void monotonic() {
+        long last = SnowflakeUtil.nextId();
+        for (int i = 0; i < 100_000; i++) {
+            long id = SnowflakeUtil.nextId();
+            assertTrue(id > last);
+            last = id;
+        }
+    }
+
+    @Test
+    void collision() throws InterruptedException {
+        final int threadCount = 4;
+        final int perThread = 20_000;
+        Set<Long> idSet = ConcurrentHashMap.newKeySet(threadCount * perThread);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            executor.execute(() -> {
+                try {
+                    for (int i = 0; i < perThread; i++) {
+                        idSet.add(SnowflakeUtil.nextId());
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        executor.shutdown();
+        assertEquals(threadCount * perThread, idSet.size());
+    }
+
+    @Test
+    void invalidNodeId() {
+        assertThrows(Exception.class, () -> SnowflakeUtil.setNodeId(SnowflakeUtil.MAX_NODE_ID + 1));
+        assertThrows(Exception.class, () -> SnowflakeUtil.setNodeId(-1));
+        assertEquals(NODE_ID, SnowflakeUtil.getNodeId());
+    }
+}